@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.starfaces.mavenplugin.fixture.ComponentLibraryGenerator;
+import org.starfaces.mavenplugin.inspect.ClassInspector;
+import org.starfaces.mavenplugin.model.FacesLib;
+import org.starfaces.mavenplugin.util.Utils;
+
+/**
+ * Generated component library shared by the benchmarks of a trial.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+@State(Scope.Benchmark)
+public class LibraryState {
+
+  /**
+   * Number of components.
+   */
+  @Param({"100", "1000"})
+  public int components;
+
+  /**
+   * Number of attributes declared by every class.
+   */
+  @Param({"5", "20"})
+  public int attributes;
+
+  /**
+   * Number of base classes between the components and {@code UIComponentBase}.
+   */
+  @Param({"1", "5"})
+  public int depth;
+
+  /**
+   * Directory the library is generated in.
+   */
+  private Path directory;
+
+  /**
+   * Classes directory of the library.
+   */
+  private Path classes;
+
+  /**
+   * Class path roots: the classes directory followed by the jar of the Faces API.
+   */
+  private List<Path> roots;
+
+  /**
+   * Generates the library.
+   *
+   * @throws IOException If any exceptions happen generating.
+   */
+  @Setup(Level.Trial)
+  public void generate() throws IOException {
+    directory = Files.createTempDirectory("starfaces-benchmark");
+    classes = new ComponentLibraryGenerator(components, attributes, depth).generate(directory);
+    roots = ComponentLibraryGenerator.classPathRoots(classes);
+  }
+
+  /**
+   * Deletes the library.
+   *
+   * @throws IOException If any exceptions happen deleting.
+   */
+  @TearDown(Level.Trial)
+  public void delete() throws IOException {
+    ComponentLibraryGenerator.delete(directory);
+  }
+
+  /**
+   * Builds the model the way the taglib goal does.
+   *
+   * @param inspector Class inspector to use.
+   *
+   * @return Faces library model.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  public FacesLib buildFacesLib(ClassInspector inspector) throws IOException {
+    FacesLib lib = new FacesLib(inspector, ComponentLibraryGenerator.pluginConfig());
+    lib.addComponents(Utils.classNames(classes, 100).map(inspector::facesComponent).filter(Objects::nonNull));
+    lib.sortComponents();
+    lib.detach();
+    return lib;
+  }
+
+  /**
+   * Returns {@link #classes}.
+   *
+   * @return {@link #classes}.
+   */
+  public Path getClasses() {
+    return classes;
+  }
+
+  /**
+   * Returns {@link #roots}.
+   *
+   * @return {@link #roots}.
+   */
+  public List<Path> getRoots() {
+    return roots;
+  }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.benchmark;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.starfaces.mavenplugin.inspect.BytecodeClassInspector;
+import org.starfaces.mavenplugin.inspect.ClassInspector;
+import org.starfaces.mavenplugin.inspect.ClassNameIndex;
+import org.starfaces.mavenplugin.inspect.ReflectiveClassInspector;
+import org.starfaces.mavenplugin.model.FacesLib;
+
+/**
+ * Benchmarks discovering components and building the model (including the resolution of attributes over the class
+ * hierarchy) using both discovery modes.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ModelBenchmark {
+
+  /**
+   * Builds the model reading class files.
+   *
+   * @param state Library.
+   *
+   * @return Model.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  @Benchmark
+  public FacesLib bytecode(LibraryState state) throws IOException {
+    try (ClassInspector inspector = new BytecodeClassInspector(state.getRoots(),
+                                                               ClassNameIndex.of(state.getRoots()))) {
+      return state.buildFacesLib(inspector);
+    }
+  }
+
+  /**
+   * Builds the model loading classes using a new class loader, like the plugin does for every execution.
+   *
+   * @param state Library.
+   *
+   * @return Model.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  @Benchmark
+  public FacesLib reflection(LibraryState state) throws IOException {
+    URL[] urls = {state.getClasses().toUri().toURL()};
+    try (URLClassLoader classLoader = URLClassLoader.newInstance(urls, ModelBenchmark.class.getClassLoader());
+         ClassInspector inspector = new ReflectiveClassInspector(classLoader, ClassNameIndex.of(state.getRoots()))) {
+      return state.buildFacesLib(inspector);
+    }
+  }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.benchmark;
+
+import freemarker.cache.ClassTemplateLoader;
+import freemarker.template.Configuration;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.starfaces.mavenplugin.inspect.BytecodeClassInspector;
+import org.starfaces.mavenplugin.inspect.ClassInspector;
+import org.starfaces.mavenplugin.inspect.ClassNameIndex;
+import org.starfaces.mavenplugin.model.FacesLib;
+import org.starfaces.mavenplugin.output.FreeMarkerRenderer;
+import org.starfaces.mavenplugin.output.StaxTagLibRenderer;
+
+/**
+ * Benchmarks rendering the taglib of a model that is built once per trial.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RenderBenchmark {
+
+  /**
+   * Model to render.
+   */
+  private FacesLib facesLib;
+
+  /**
+   * FreeMarker renderer for {@code taglib.xml.ftl}.
+   */
+  private FreeMarkerRenderer freeMarkerRenderer;
+
+  /**
+   * Builds the model and creates the renderers.
+   *
+   * @param state Library.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  @Setup(Level.Trial)
+  public void setup(LibraryState state) throws IOException {
+    try (ClassInspector inspector = new BytecodeClassInspector(state.getRoots(),
+                                                               ClassNameIndex.of(state.getRoots()))) {
+      facesLib = state.buildFacesLib(inspector);
+    }
+    Configuration configuration = new Configuration(Configuration.VERSION_2_3_28);
+    configuration.setTemplateLoader(new ClassTemplateLoader(FreeMarkerRenderer.class, "/"));
+    configuration.setDefaultEncoding(StandardCharsets.UTF_8.name());
+    freeMarkerRenderer = new FreeMarkerRenderer(configuration, "taglib.xml.ftl");
+  }
+
+  /**
+   * Renders the taglib processing the FreeMarker template.
+   *
+   * @return Number of bytes rendered.
+   *
+   * @throws IOException If any exceptions happen rendering.
+   */
+  @Benchmark
+  public long freeMarker() throws IOException {
+    CountingOutputStream out = new CountingOutputStream();
+    freeMarkerRenderer.render(facesLib, out);
+    return out.count;
+  }
+
+  /**
+   * Renders the taglib streaming XML.
+   *
+   * @return Number of bytes rendered.
+   *
+   * @throws IOException If any exceptions happen rendering.
+   */
+  @Benchmark
+  public long stax() throws IOException {
+    CountingOutputStream out = new CountingOutputStream();
+    new StaxTagLibRenderer().render(facesLib, out);
+    return out.count;
+  }
+
+  /**
+   * Output stream discarding and counting bytes, so writing does not influence the measurements.
+   */
+  private static class CountingOutputStream extends OutputStream {
+
+    /**
+     * Number of bytes written.
+     */
+    private long count;
+
+    @Override
+    public void write(int b) {
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      count += len;
+    }
+
+  }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.starfaces.mavenplugin.inspect.ClassNameIndex;
+import org.starfaces.mavenplugin.util.Utils;
+
+/**
+ * Benchmarks scanning the classes directory.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ScanBenchmark {
+
+  /**
+   * Lists the class names in the classes directory.
+   *
+   * @param state Library.
+   *
+   * @return Class names.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  @Benchmark
+  public List<String> classNames(LibraryState state) throws IOException {
+    return Utils.classNames(state.getClasses(), 100).collect(Collectors.toList());
+  }
+
+  /**
+   * Indexes the nested classes in the class path roots.
+   *
+   * @param state Library.
+   *
+   * @return Index.
+   */
+  @Benchmark
+  public ClassNameIndex classNameIndex(LibraryState state) {
+    return ClassNameIndex.of(state.getRoots());
+  }
+
+}
@@ -0,0 +1,552 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.cli;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.codehaus.plexus.util.xml.Xpp3DomBuilder;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.starfaces.mavenplugin.core.FacesLibGenerator;
+import org.starfaces.mavenplugin.core.FacesLibSession;
+import org.starfaces.mavenplugin.inspect.DiscoveryMode;
+import org.starfaces.mavenplugin.model.FacesLib;
+import org.starfaces.mavenplugin.output.ComponentIndexRenderer;
+import org.starfaces.mavenplugin.output.FreeMarkerRenderer;
+import org.starfaces.mavenplugin.output.OutputStatus;
+import org.starfaces.mavenplugin.output.Renderer;
+import org.starfaces.mavenplugin.output.RendererType;
+import org.starfaces.mavenplugin.output.StaxTagLibRenderer;
+import org.starfaces.mavenplugin.report.BuildReport;
+import org.starfaces.mavenplugin.util.PackageFilter;
+
+/**
+ * Command line interface generating outputs (like the taglib) of a classes directory without Maven, for other build
+ * tools and IDE tooling. It runs a single generation, or runs as a daemon keeping the models (per classes directory),
+ * parsed templates and parsed class files of jars between generations, so a generation only inspects the changed
+ * classes. Generations are requested using the same command line, prefixed by {@code --connect <port>}.
+ * <p>
+ * The daemon only listens on the loopback address. On start it writes a random token to a file in
+ * {@code ~/.starfaces} that only the owner can read; requests without that token are refused, so other users of the
+ * machine cannot make the daemon read or write files. A request is the token and the working directory of the client
+ * followed by the arguments, each on its own line, terminated by an empty line. The response is the output of the
+ * generation, ending with a line {@code OK} or a line starting with {@code ERROR}.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public final class StarFacesCli {
+
+  /**
+   * Usage of the command line interface.
+   */
+  private static final String USAGE = String.join("\n",
+          "Usage: java " + StarFacesCli.class.getName() + " [--connect <port>] <options>",
+          "       java " + StarFacesCli.class.getName() + " --daemon <port>",
+          "       java " + StarFacesCli.class.getName() + " --connect <port> --stop",
+          "Options:",
+          "  --classes <dir>             Compiled classes to scan for components (required)",
+          "  --classpath <entries>       Jars and directories to resolve classes, separated by " + File.pathSeparator,
+          "  --config <file>             XML file with the plugin configuration (like namespace and shortName)",
+          "  --set <name>=<value>        Sets a plugin configuration value",
+          "  --discovery <mode>          BYTECODE (default) or REFLECTION",
+          "  --parallelism <threads>     Number of threads, defaults to the number of processors",
+          "  --include <package>         Package to scan, may be repeated",
+          "  --exclude <package>         Package not to scan, may be repeated",
+          "  --scan-jar <jar>            Jar to add the components of, may be repeated",
+          "  --jar-index <dir>           Directory to cache components of jars in, defaults to ../starfaces/jars",
+          "  --template-directory <dir>  Directory with user templates",
+          "  --template <name>           Template for the next outputs, defaults to taglib.xml.ftl",
+          "  --renderer <type>           FREEMARKER (default), STAX or COMPONENT_INDEX for the next outputs",
+          "  --output <file>             File to render to, may be repeated (required)",
+          "  --report <file>             File to write the JSON report to");
+
+  /**
+   * Line ending a successful response.
+   */
+  private static final String OK = "OK";
+
+  /**
+   * Prefix of the line ending a failed response.
+   */
+  private static final String ERROR = "ERROR";
+
+  /**
+   * Directory holding the token files of running daemons.
+   */
+  private static final Path TOKEN_DIRECTORY = Paths.get(System.getProperty("user.home"), ".starfaces");
+
+  /**
+   * Number of random bytes of a daemon token.
+   */
+  private static final int TOKEN_BYTES = 32;
+
+  /**
+   * Sessions by absolute classes directory, only used by the daemon.
+   */
+  private final Map<Path, FacesLibSession> sessions = new ConcurrentHashMap<>();
+
+  /**
+   * If {@code true} models are kept in {@link #sessions} between generations.
+   */
+  private final boolean keepModels;
+
+  /**
+   * Create command line interface.
+   *
+   * @param keepModels If {@code true} models are kept between generations.
+   */
+  private StarFacesCli(boolean keepModels) {
+    this.keepModels = keepModels;
+  }
+
+  /**
+   * Runs a generation, the daemon or a generation by the daemon.
+   *
+   * @param args Command line arguments.
+   */
+  public static void main(String[] args) {
+    List<String> arguments = Arrays.asList(args);
+    int status;
+    try {
+      if (arguments.size() == 2 && "--daemon".equals(arguments.get(0))) {
+        new StarFacesCli(true).serve(Integer.parseInt(arguments.get(1)));
+        status = 0;
+      }
+      else if (arguments.size() > 2 && "--connect".equals(arguments.get(0))) {
+        status = connect(Integer.parseInt(arguments.get(1)), arguments.subList(2, arguments.size()));
+      }
+      else {
+        PrintWriter out = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), true);
+        new StarFacesCli(false).generate(arguments, Paths.get("").toAbsolutePath(), out);
+        status = 0;
+      }
+    }
+    catch (IllegalArgumentException ex) {
+      System.err.println(ERROR + ": " + ex.getMessage());
+      System.err.println(USAGE);
+      status = 2;
+    }
+    catch (IOException | RuntimeException ex) {
+      System.err.println(ERROR + ": " + ex);
+      status = 1;
+    }
+    System.exit(status);
+  }
+
+  /**
+   * Generates the outputs requested by the arguments.
+   *
+   * @param args    Arguments (without {@code --connect}).
+   * @param workDir Directory to resolve relative paths against.
+   * @param out     Writer to write progress to.
+   *
+   * @throws IOException If any exceptions happen reading, rendering or writing.
+   */
+  private void generate(List<String> args, Path workDir, PrintWriter out) throws IOException {
+    long start = System.nanoTime();
+    Path classesPath = null;
+    List<Path> classPath = new ArrayList<>();
+    Xpp3Dom configuration = new Xpp3Dom("configuration");
+    DiscoveryMode discovery = DiscoveryMode.BYTECODE;
+    int parallelism = 0;
+    List<String> includes = new ArrayList<>();
+    List<String> excludes = new ArrayList<>();
+    List<Path> dependencyJars = new ArrayList<>();
+    Path jarIndexPath = null;
+    Path templateDirectory = null;
+    String template = "taglib.xml.ftl";
+    RendererType rendererType = RendererType.FREEMARKER;
+    List<String> outputTemplates = new ArrayList<>();
+    List<RendererType> outputRenderers = new ArrayList<>();
+    List<Path> outputs = new ArrayList<>();
+    Path reportPath = null;
+    for (Iterator<String> it = args.iterator(); it.hasNext();) {
+      String option = it.next();
+      switch (option) {
+        case "--classes":
+          classesPath = workDir.resolve(value(it, option));
+          break;
+        case "--classpath":
+          for (String entry : value(it, option).split(File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+              classPath.add(workDir.resolve(entry));
+            }
+          }
+          break;
+        case "--config":
+          configuration = readConfiguration(workDir.resolve(value(it, option)));
+          break;
+        case "--set":
+          setConfiguration(configuration, value(it, option));
+          break;
+        case "--discovery":
+          discovery = DiscoveryMode.valueOf(value(it, option));
+          break;
+        case "--parallelism":
+          parallelism = Integer.parseInt(value(it, option));
+          break;
+        case "--include":
+          includes.add(value(it, option));
+          break;
+        case "--exclude":
+          excludes.add(value(it, option));
+          break;
+        case "--scan-jar":
+          dependencyJars.add(workDir.resolve(value(it, option)));
+          break;
+        case "--jar-index":
+          jarIndexPath = workDir.resolve(value(it, option));
+          break;
+        case "--template-directory":
+          templateDirectory = workDir.resolve(value(it, option));
+          break;
+        case "--template":
+          template = value(it, option);
+          rendererType = RendererType.FREEMARKER;
+          break;
+        case "--renderer":
+          rendererType = RendererType.valueOf(value(it, option));
+          break;
+        case "--output":
+          outputs.add(workDir.resolve(value(it, option)));
+          outputTemplates.add(template);
+          outputRenderers.add(rendererType);
+          break;
+        case "--report":
+          reportPath = workDir.resolve(value(it, option));
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown option " + option);
+      }
+    }
+    if (classesPath == null) {
+      throw new IllegalArgumentException("No --classes set");
+    }
+    if (outputs.isEmpty()) {
+      throw new IllegalArgumentException("No --output set");
+    }
+    classesPath = classesPath.normalize();
+    BuildReport report = new BuildReport("cli");
+    FacesLibGenerator generator = new FacesLibGenerator(classesPath, classPath, configuration, report);
+    generator.setDiscovery(discovery);
+    generator.setParallelism(parallelism);
+    generator.setPackageFilter(new PackageFilter(includes, excludes));
+    generator.setDependencyJars(dependencyJars);
+    generator.setJarIndexPath(jarIndexPath != null
+                              ? jarIndexPath
+                              : classesPath.resolveSibling("starfaces").resolve("jars"));
+    generator.setTemplateDirectory(templateDirectory);
+    FacesLib lib;
+    if (keepModels) {
+      FacesLibSession session = sessions.computeIfAbsent(classesPath, p -> new FacesLibSession());
+      synchronized (session) {
+        lib = session.getFacesLib(generator);
+        String templatesHash = generator.getTemplateDirectoryHash();
+        for (int i = 0; i < outputs.size(); i++) {
+          Renderer renderer = getRenderer(generator, outputRenderers.get(i), outputTemplates.get(i));
+          String rendererKey = outputRenderers.get(i) + " " + outputTemplates.get(i) + " " + templatesHash;
+          logProcessed(out, outputs.get(i), session.render(generator, renderer, rendererKey, outputs.get(i)));
+        }
+      }
+    }
+    else {
+      lib = generator.build();
+      for (int i = 0; i < outputs.size(); i++) {
+        Renderer renderer = getRenderer(generator, outputRenderers.get(i), outputTemplates.get(i));
+        logProcessed(out, outputs.get(i), generator.render(renderer, lib, outputs.get(i)));
+      }
+    }
+    report.addCounter("components", lib.getComponents().size());
+    if (reportPath != null) {
+      report.write(reportPath);
+    }
+    out.println(String.format("Generated %d output(s) of %d components in %d ms", outputs.size(),
+                              lib.getComponents().size(), (System.nanoTime() - start) / 1_000_000));
+  }
+
+  /**
+   * Writes path that was processed.
+   *
+   * @param out    Writer to write to.
+   * @param path   Path that was processed.
+   * @param status Output status of the path.
+   */
+  private static void logProcessed(PrintWriter out, Path path, OutputStatus status) {
+    out.println(String.format("Processed (%s): %s", status.name().toLowerCase(), path));
+  }
+
+  /**
+   * Returns value of an option.
+   *
+   * @param it     Iterator over the arguments, positioned after the option.
+   * @param option Option name.
+   *
+   * @return Value of the option.
+   */
+  private static String value(Iterator<String> it, String option) {
+    if (!it.hasNext()) {
+      throw new IllegalArgumentException("No value for " + option);
+    }
+    return it.next();
+  }
+
+  /**
+   * Reads plugin configuration from an XML file. The name of the root element does not matter.
+   *
+   * @param file XML file.
+   *
+   * @return Plugin configuration.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  private static Xpp3Dom readConfiguration(Path file) throws IOException {
+    try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      return Xpp3DomBuilder.build(reader);
+    }
+    catch (XmlPullParserException ex) {
+      throw new IllegalArgumentException("Could not parse " + file + ": " + ex.getMessage(), ex);
+    }
+  }
+
+  /**
+   * Sets a plugin configuration value, replacing the values of the same name.
+   *
+   * @param configuration Plugin configuration.
+   * @param assignment    Value as {@code name=value}.
+   */
+  private static void setConfiguration(Xpp3Dom configuration, String assignment) {
+    int index = assignment.indexOf('=');
+    if (index < 1) {
+      throw new IllegalArgumentException("Expected <name>=<value>: " + assignment);
+    }
+    String name = assignment.substring(0, index);
+    Xpp3Dom[] children = configuration.getChildren();
+    for (int i = children.length - 1; i >= 0; i--) {
+      if (name.equals(children[i].getName())) {
+        configuration.removeChild(i);
+      }
+    }
+    Xpp3Dom child = new Xpp3Dom(name);
+    child.setValue(assignment.substring(index + 1));
+    configuration.addChild(child);
+  }
+
+  /**
+   * Returns renderer for an output.
+   *
+   * @param generator Generator providing the FreeMarker configuration.
+   * @param type      Renderer type.
+   * @param template  FreeMarker template name, used for {@link RendererType#FREEMARKER}.
+   *
+   * @return Renderer for the output.
+   */
+  private static Renderer getRenderer(FacesLibGenerator generator, RendererType type, String template) {
+    switch (type) {
+      case STAX:
+        return new StaxTagLibRenderer();
+      case COMPONENT_INDEX:
+        return new ComponentIndexRenderer();
+      default:
+        return new FreeMarkerRenderer(generator.getFreeMarkerConfiguration(), template);
+    }
+  }
+
+  /**
+   * Runs the daemon until a {@code --stop} request is received. Requests are handled concurrently; requests for the
+   * same classes directory wait for each other. The port is written to standard output once listening, which is
+   * useful when using port {@code 0} (any free port).
+   *
+   * @param port Port to listen on.
+   *
+   * @throws IOException If any exceptions happen listening.
+   */
+  private void serve(int port) throws IOException {
+    ExecutorService executor = Executors.newCachedThreadPool(r -> {
+      Thread thread = new Thread(r, "starfaces-daemon");
+      thread.setDaemon(true);
+      return thread;
+    });
+    Path tokenFile = null;
+    try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+      tokenFile = getTokenFile(server.getLocalPort());
+      byte[] token = writeToken(tokenFile);
+      System.out.println("Listening on port " + server.getLocalPort() + ", token written to " + tokenFile);
+      while (!server.isClosed()) {
+        Socket socket;
+        try {
+          socket = server.accept();
+        }
+        catch (IOException ex) {
+          if (server.isClosed()) {
+            break;
+          }
+          throw ex;
+        }
+        executor.execute(() -> handle(socket, server, token));
+      }
+    }
+    finally {
+      executor.shutdownNow();
+      if (tokenFile != null) {
+        Files.deleteIfExists(tokenFile);
+      }
+    }
+  }
+
+  /**
+   * Returns the file holding the token of the daemon listening on a port.
+   *
+   * @param port Port of the daemon.
+   *
+   * @return File holding the token of the daemon.
+   */
+  private static Path getTokenFile(int port) {
+    return TOKEN_DIRECTORY.resolve("daemon-" + port + ".token");
+  }
+
+  /**
+   * Writes a new random token to a file only the owner can read (on file systems supporting POSIX permissions; other
+   * file systems rely on the permissions of the user's home directory). An existing file is replaced, never followed.
+   *
+   * @param tokenFile File to write the token to.
+   *
+   * @return Token as written to the file.
+   *
+   * @throws IOException If any exceptions happen writing.
+   */
+  private static byte[] writeToken(Path tokenFile) throws IOException {
+    byte[] random = new byte[TOKEN_BYTES];
+    new SecureRandom().nextBytes(random);
+    byte[] token = Base64.getUrlEncoder().withoutPadding().encodeToString(random).getBytes(StandardCharsets.UTF_8);
+    boolean posix = tokenFile.getFileSystem().supportedFileAttributeViews().contains("posix");
+    if (posix) {
+      Files.createDirectories(tokenFile.getParent(),
+                              PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+    }
+    else {
+      Files.createDirectories(tokenFile.getParent());
+    }
+    Files.deleteIfExists(tokenFile);
+    if (posix) {
+      Files.createFile(tokenFile, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+    }
+    else {
+      Files.createFile(tokenFile);
+    }
+    Files.write(tokenFile, token);
+    return token;
+  }
+
+  /**
+   * Handles a request to the daemon. Requests without the token of the daemon are refused. Failures are reported to
+   * the client.
+   *
+   * @param socket Connection of the client.
+   * @param server Server socket, closed on a {@code --stop} request.
+   * @param token  Token of the daemon.
+   */
+  private void handle(Socket socket, ServerSocket server, byte[] token) {
+    try (Socket s = socket;
+         BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+         PrintWriter out = new PrintWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8))) {
+      String requestToken = in.readLine();
+      if (requestToken == null || !MessageDigest.isEqual(token, requestToken.getBytes(StandardCharsets.UTF_8))) {
+        out.println(ERROR + ": Invalid token");
+        return;
+      }
+      String workDir = in.readLine();
+      List<String> args = new ArrayList<>();
+      for (String line = in.readLine(); line != null && !line.isEmpty(); line = in.readLine()) {
+        args.add(line);
+      }
+      try {
+        if (args.equals(Arrays.asList("--stop"))) {
+          out.println(OK);
+          out.flush();
+          server.close();
+          return;
+        }
+        if (workDir == null) {
+          throw new IllegalArgumentException("Empty request");
+        }
+        generate(args, Paths.get(workDir), out);
+        out.println(OK);
+      }
+      catch (IOException | RuntimeException ex) {
+        out.println(ERROR + ": " + ex);
+      }
+    }
+    catch (IOException ex) {
+      System.err.println("Could not handle request: " + ex);
+    }
+  }
+
+  /**
+   * Requests a generation (or {@code --stop}) from the daemon and writes the response to standard output. The token is
+   * read from the token file of the daemon.
+   *
+   * @param port Port of the daemon.
+   * @param args Arguments (without {@code --connect}).
+   *
+   * @return Exit status: {@code 0} if the daemon responded {@code OK}.
+   *
+   * @throws IOException If any exceptions happen connecting or communicating.
+   */
+  private static int connect(int port, List<String> args) throws IOException {
+    Path tokenFile = getTokenFile(port);
+    if (!Files.isRegularFile(tokenFile)) {
+      throw new IOException("No token file " + tokenFile + ", is the daemon running on port " + port + "?");
+    }
+    String token = new String(Files.readAllBytes(tokenFile), StandardCharsets.UTF_8);
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+         PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+         BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                                                                      StandardCharsets.UTF_8))) {
+      out.print(token + "\n");
+      out.print(Paths.get("").toAbsolutePath() + "\n");
+      for (String arg : args) {
+        out.print(arg + "\n");
+      }
+      out.print("\n");
+      out.flush();
+      for (String line = in.readLine(); line != null; line = in.readLine()) {
+        if (OK.equals(line)) {
+          return 0;
+        }
+        if (line.startsWith(ERROR)) {
+          System.err.println(line);
+          return 1;
+        }
+        System.out.println(line);
+      }
+      System.err.println(ERROR + ": No response");
+      return 1;
+    }
+  }
+
+}
@@ -0,0 +1,999 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.core;
+
+import freemarker.cache.ClassTemplateLoader;
+import freemarker.cache.FileTemplateLoader;
+import freemarker.cache.MruCacheStorage;
+import freemarker.cache.MultiTemplateLoader;
+import freemarker.cache.TemplateLoader;
+import freemarker.template.Configuration;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.starfaces.mavenplugin.incremental.ComponentIndex;
+import org.starfaces.mavenplugin.incremental.ComponentState;
+import org.starfaces.mavenplugin.incremental.FingerprintStore;
+import org.starfaces.mavenplugin.incremental.IncrementalBuild;
+import org.starfaces.mavenplugin.incremental.JarIndexCache;
+import org.starfaces.mavenplugin.inspect.BytecodeClassInspector;
+import org.starfaces.mavenplugin.inspect.ClassInspector;
+import org.starfaces.mavenplugin.inspect.ClassNameIndex;
+import org.starfaces.mavenplugin.inspect.ComponentInfo;
+import org.starfaces.mavenplugin.inspect.DiscoveryMode;
+import org.starfaces.mavenplugin.inspect.ReflectiveClassInspector;
+import org.starfaces.mavenplugin.model.FacesLib;
+import org.starfaces.mavenplugin.model.LibComponent;
+import org.starfaces.mavenplugin.output.OutputSink;
+import org.starfaces.mavenplugin.output.OutputStatus;
+import org.starfaces.mavenplugin.output.Renderer;
+import org.starfaces.mavenplugin.report.BuildReport;
+import org.starfaces.mavenplugin.util.PackageFilter;
+import org.starfaces.mavenplugin.util.Utils;
+
+/**
+ * Builds and renders the faces library model of a classes directory, independent of the build tool. It is used by the
+ * Maven goals and by the {@link org.starfaces.mavenplugin.cli.StarFacesCli command line interface}, and can be
+ * embedded by other build tools or IDE tooling. The classes directory is scanned for components; class files of the
+ * class path (jars or directories) are only read to resolve super classes and attributes. Timings and counters are
+ * added to the {@link #getReport() report}.
+ * <p>
+ * FreeMarker configurations (and so parsed templates) and parsed class files of jars are shared by all generators in
+ * the JVM, so a long-lived process keeps them warm. Hashes and the {@link #setStatePath(Path) incremental build
+ * state} are computed once per generator, so use a new generator for every generation.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class FacesLibGenerator {
+
+  /**
+   * Number of most expensive components to list in the report.
+   */
+  private static final int EXPENSIVE_COMPONENTS = 10;
+
+  /**
+   * FreeMarker configuration loading templates from this plugin's resources. Parsed templates are cached for the
+   * life time of the JVM.
+   */
+  private static final Configuration FREEMARKER_CONF;
+
+  /**
+   * FreeMarker configurations by user template directory. These load templates from the template directory first and
+   * fall back to this plugin's resources.
+   */
+  private static final Map<Path, Configuration> FREEMARKER_DIR_CONFS = new ConcurrentHashMap<>();
+
+  static {
+    FREEMARKER_CONF = newFreeMarkerConfiguration(new ClassTemplateLoader(FacesLibGenerator.class, "/"));
+  }
+
+  /**
+   * Directory with the compiled classes to scan for components.
+   */
+  private final Path classesPath;
+
+  /**
+   * Class path entries (jars or directories) to resolve classes from.
+   */
+  private final List<Path> classPath;
+
+  /**
+   * Plugin configuration, available to templates as {@code pluginConfig}.
+   */
+  private final Xpp3Dom configuration;
+
+  /**
+   * Timings and counters of this generator.
+   */
+  private final BuildReport report;
+
+  /**
+   * How components are discovered.
+   */
+  private DiscoveryMode discovery = DiscoveryMode.BYTECODE;
+
+  /**
+   * Number of threads to use, or {@code 0} or less for the number of available processors.
+   */
+  private int parallelism;
+
+  /**
+   * Filter on the packages to scan for components.
+   */
+  private PackageFilter packageFilter = PackageFilter.ALL;
+
+  /**
+   * Jars of which the components are added to the model.
+   */
+  private List<Path> dependencyJars = Collections.emptyList();
+
+  /**
+   * Directory storing the component indexes of {@link #dependencyJars}.
+   */
+  private Path jarIndexPath;
+
+  /**
+   * Directory containing user templates, or {@code null} to only use this plugin's templates.
+   */
+  private Path templateDirectory;
+
+  /**
+   * Settings of the goal or tool affecting the rendered output (like the template), part of the
+   * {@link #getConfigHash() configuration hash}.
+   */
+  private String outputSettings = "";
+
+  /**
+   * File storing the state of the last generation, or {@code null} to always inspect all classes.
+   */
+  private Path statePath;
+
+  /**
+   * File storing the checksums of the class path jars used by the {@link #getOutputCacheKey output cache key}, or
+   * {@code null} to compute them on every build.
+   */
+  private Path fingerprintPath;
+
+  /**
+   * Logs debug messages, like why the state of the last generation is ignored. Does nothing by default.
+   */
+  private Consumer<String> debugLog = message -> {
+  };
+
+  /**
+   * Hash of the class path, computed on first use.
+   */
+  private String classPathHash;
+
+  /**
+   * Hash of the configuration and settings, computed on first use.
+   */
+  private String configHash;
+
+  /**
+   * Incremental build, created on first use if the {@link #statePath} is set.
+   */
+  private IncrementalBuild incrementalBuild;
+
+  /**
+   * Time spent inspecting classes by {@link #findComponents}, summed over all threads.
+   */
+  private final LongAdder discoveryNanos = new LongAdder();
+
+  /**
+   * Number of classes inspected by {@link #findComponents}.
+   */
+  private final LongAdder classesScanned = new LongAdder();
+
+  /**
+   * Create generator.
+   *
+   * @param classesPath   Directory with the compiled classes to scan for components.
+   * @param classPath     Class path entries (jars or directories) to resolve classes from.
+   * @param configuration Plugin configuration, available to templates as {@code pluginConfig}.
+   * @param report        Report to add timings and counters to.
+   */
+  public FacesLibGenerator(Path classesPath, List<Path> classPath, Xpp3Dom configuration, BuildReport report) {
+    this.classesPath = classesPath;
+    this.classPath = new ArrayList<>(classPath);
+    this.configuration = configuration;
+    this.report = report;
+  }
+
+  /**
+   * Returns {@link #classesPath}.
+   *
+   * @return {@link #classesPath}.
+   */
+  public Path getClassesPath() {
+    return classesPath;
+  }
+
+  /**
+   * Returns {@link #configuration}.
+   *
+   * @return {@link #configuration}.
+   */
+  public Xpp3Dom getConfiguration() {
+    return configuration;
+  }
+
+  /**
+   * Returns {@link #report}.
+   *
+   * @return {@link #report}.
+   */
+  public BuildReport getReport() {
+    return report;
+  }
+
+  /**
+   * Sets {@link #discovery}.
+   *
+   * @param discovery {@link #discovery}.
+   */
+  public void setDiscovery(DiscoveryMode discovery) {
+    this.discovery = discovery;
+  }
+
+  /**
+   * Sets {@link #parallelism}.
+   *
+   * @param parallelism {@link #parallelism}.
+   */
+  public void setParallelism(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Sets {@link #packageFilter}.
+   *
+   * @param packageFilter {@link #packageFilter}.
+   */
+  public void setPackageFilter(PackageFilter packageFilter) {
+    this.packageFilter = packageFilter;
+  }
+
+  /**
+   * Sets {@link #dependencyJars}.
+   *
+   * @param dependencyJars {@link #dependencyJars}.
+   */
+  public void setDependencyJars(List<Path> dependencyJars) {
+    this.dependencyJars = new ArrayList<>(dependencyJars);
+  }
+
+  /**
+   * Sets {@link #jarIndexPath}.
+   *
+   * @param jarIndexPath {@link #jarIndexPath}.
+   */
+  public void setJarIndexPath(Path jarIndexPath) {
+    this.jarIndexPath = jarIndexPath;
+  }
+
+  /**
+   * Sets {@link #templateDirectory}.
+   *
+   * @param templateDirectory {@link #templateDirectory}.
+   */
+  public void setTemplateDirectory(Path templateDirectory) {
+    this.templateDirectory = templateDirectory;
+  }
+
+  /**
+   * Sets {@link #outputSettings}.
+   *
+   * @param outputSettings {@link #outputSettings}.
+   */
+  public void setOutputSettings(String outputSettings) {
+    this.outputSettings = outputSettings;
+  }
+
+  /**
+   * Sets {@link #statePath}. When set, {@link #build()} only inspects the classes that changed since the state was
+   * {@link #saveState(FacesLib) saved}.
+   *
+   * @param statePath {@link #statePath}.
+   */
+  public void setStatePath(Path statePath) {
+    this.statePath = statePath;
+  }
+
+  /**
+   * Sets {@link #fingerprintPath}.
+   *
+   * @param fingerprintPath {@link #fingerprintPath}.
+   */
+  public void setFingerprintPath(Path fingerprintPath) {
+    this.fingerprintPath = fingerprintPath;
+  }
+
+  /**
+   * Sets {@link #debugLog}.
+   *
+   * @param debugLog {@link #debugLog}.
+   */
+  public void setDebugLog(Consumer<String> debugLog) {
+    this.debugLog = debugLog;
+  }
+
+  /**
+   * Returns {@link #parallelism} or the number of available processors if not set.
+   *
+   * @return Number of threads to use.
+   */
+  public int getParallelism() {
+    return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * Returns {@link #packageFilter}.
+   *
+   * @return {@link #packageFilter}.
+   */
+  public PackageFilter getPackageFilter() {
+    return packageFilter;
+  }
+
+  /**
+   * Returns the settings affecting the model (classes path, class path, configuration, discovery mode, package filter,
+   * dependency jars and template directory). Models built by generators with the same settings are interchangeable.
+   *
+   * @return Settings affecting the model.
+   */
+  public String getSettings() {
+    return String.join("\n", classesPath.toAbsolutePath().toString(), String.valueOf(classPath),
+                       String.valueOf(configuration), String.valueOf(discovery), String.valueOf(packageFilter),
+                       String.valueOf(dependencyJars), String.valueOf(templateDirectory));
+  }
+
+  /**
+   * Returns class path roots to read class files from: the {@link #classesPath} followed by the {@link #classPath}.
+   *
+   * @return Class path roots to read class files from.
+   */
+  private List<Path> getClassPathRoots() {
+    List<Path> roots = new ArrayList<>();
+    roots.add(classesPath);
+    roots.addAll(classPath);
+    return roots;
+  }
+
+  /**
+   * Returns a new class loader for the {@link #classPath} and {@link #classesPath}. The class loader is closed when the
+   * {@link ReflectiveClassInspector} using it is closed.
+   *
+   * @return Class loader for the class path and classes path.
+   */
+  private URLClassLoader getClassLoader() {
+    List<URL> urls = classPath.stream().map(Utils::toURL).collect(Collectors.toList());
+    urls.add(Utils.toURL(classesPath));
+    return URLClassLoader.newInstance(urls.toArray(new URL[urls.size()]),
+                                      FacesLibGenerator.class.getClassLoader());
+  }
+
+  /**
+   * Returns class inspector for the configured {@link #discovery} mode, using a {@link ClassNameIndex} of the class
+   * path roots to look up {@code PropertyKeys} classes.
+   *
+   * @return Class inspector for the configured {@link #discovery} mode.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  public ClassInspector getClassInspector() throws IOException {
+    long start = System.nanoTime();
+    List<Path> roots = getClassPathRoots();
+    ClassNameIndex index = Utils.inPool(getParallelism(), () -> ClassNameIndex.of(roots));
+    report.endPhase("index", start);
+    if (discovery == DiscoveryMode.REFLECTION) {
+      return new ReflectiveClassInspector(getClassLoader(), index);
+    }
+    return new BytecodeClassInspector(roots, index);
+  }
+
+  /**
+   * Finds components using {@link ClassInspector#facesComponent(java.lang.String) }. The time spent and the number of
+   * classes inspected are added to {@link #discoveryNanos} and {@link #classesScanned}.
+   *
+   * @param inspector  Class inspector.
+   * @param classNames Names of the classes to inspect.
+   *
+   * @return Stream of component information.
+   */
+  public Stream<ComponentInfo> findComponents(ClassInspector inspector, Stream<String> classNames) {
+    return classNames
+            .map(className -> {
+              long start = System.nanoTime();
+              ComponentInfo component = inspector.facesComponent(className);
+              discoveryNanos.add(System.nanoTime() - start);
+              classesScanned.increment();
+              return component;
+            })
+            .filter(Objects::nonNull);
+  }
+
+  /**
+   * Adds the components in the {@link #dependencyJars} to the library. The {@link ComponentIndex} of a jar is used if
+   * present, else the components found are taken from (or stored in) the {@link JarIndexCache}. Run it in a
+   * {@link Utils#inPool pool} with the {@link #getParallelism() parallelism}, as jars are inspected using parallel
+   * streams.
+   *
+   * @param lib Faces library model to add components to.
+   *
+   * @return Class names of the added components.
+   *
+   * @throws IOException If any exceptions happen reading or writing.
+   */
+  public Set<String> addDependencyComponents(FacesLib lib) throws IOException {
+    Set<String> classNames = new HashSet<>();
+    if (dependencyJars.isEmpty()) {
+      return classNames;
+    }
+    long start = System.nanoTime();
+    JarIndexCache cache = new JarIndexCache(jarIndexPath, classPath, debugLog);
+    for (Path jar : dependencyJars) {
+      ComponentIndex index = ComponentIndex.read(jar);
+      List<ComponentState> components = index == null
+                                        ? cache.components(jar, lib.getInspector())
+                                        : index.getComponents();
+      for (ComponentState component : components) {
+        lib.addComponent(component.getInfo(), component.getHierarchy(), component.getAttributes());
+        classNames.add(component.getInfo().getClassName());
+      }
+    }
+    cache.save();
+    report.addCounter("jarIndexHits", cache.getHits());
+    report.addCounter("jarIndexMisses", cache.getMisses());
+    report.endPhase("dependencies", start);
+    return classNames;
+  }
+
+  /**
+   * Builds the faces library model by inspecting all classes in the {@link #classesPath} accepted by the
+   * {@link #packageFilter package filter}. If the {@link #statePath} is set, only the classes reported by the
+   * {@link #getIncrementalBuild() incremental build} are inspected and the other components are reused.
+   *
+   * @return Faces library model.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  public FacesLib build() throws IOException {
+    if (statePath != null) {
+      IncrementalBuild incremental = getIncrementalBuild();
+      return build(incremental.getClassesToInspect(), incremental.getReusableComponents());
+    }
+    return build(Utils.classNames(classesPath, 100, packageFilter), Collections.emptyList());
+  }
+
+  /**
+   * Builds the faces library model by inspecting classes and reusing components of a previous build (like the
+   * incremental build state). Components of the {@link #dependencyJars} are taken from their (cached) indexes and take
+   * precedence over reused components.
+   *
+   * @param classNames Names of the classes to inspect.
+   * @param reusable   Components to reuse.
+   *
+   * @return Faces library model.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  public FacesLib build(Stream<String> classNames, Collection<ComponentState> reusable) throws IOException {
+    try (ClassInspector inspector = getClassInspector()) {
+      FacesLib lib = new FacesLib(inspector, configuration);
+      Set<String> dependencyClassNames = Utils.inPool(getParallelism(), () -> addDependencyComponents(lib));
+      reusable.stream()
+              .filter(c -> !dependencyClassNames.contains(c.getInfo().getClassName()))
+              .forEach(c -> lib.addComponent(c.getInfo(), c.getHierarchy(), c.getAttributes()));
+      long start = System.nanoTime();
+      Utils.inPool(getParallelism(), () -> {
+        lib.addComponents(findComponents(inspector, classNames.parallel()));
+        return null;
+      });
+      lib.sortComponents();
+      report.endPhase("model", start);
+      reportDiscovery();
+      reportResolution(lib);
+      reportClassLoading(inspector);
+      lib.detach();
+      return lib;
+    }
+  }
+
+  /**
+   * Updates a model after classes in the {@link #classesPath} changed. Components depending on a changed class (or on
+   * a class a changed class is nested in), and changed classes accepted by the {@link #packageFilter package filter},
+   * are inspected again as far as they still exist. All other components are kept as they are. A new class inspector
+   * (without class name index) is used, so no stale class files or classes are read.
+   *
+   * @param previous       Model to update, it is not modified.
+   * @param changedClasses Names of the classes that were added, changed or removed.
+   *
+   * @return Updated model.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  public FacesLib update(FacesLib previous, Set<String> changedClasses) throws IOException {
+    long start = System.nanoTime();
+    Set<String> removedClasses = changedClasses.stream()
+            .filter(c -> !Files.isRegularFile(classesPath.resolve(c.replace('.', '/') + ".class")))
+            .collect(Collectors.toSet());
+    Set<String> classNames = new TreeSet<>();
+    changedClasses.stream()
+            .filter(c -> !removedClasses.contains(c))
+            .filter(packageFilter::includesClass)
+            .forEach(classNames::add);
+    Set<String> affectedClasses = ComponentState.withOuterClasses(changedClasses);
+    try (ClassInspector inspector = discovery == DiscoveryMode.REFLECTION
+                                    ? new ReflectiveClassInspector(getClassLoader(), null)
+                                    : new BytecodeClassInspector(getClassPathRoots(), null)) {
+      FacesLib lib = new FacesLib(inspector, configuration);
+      for (LibComponent component : previous.getComponents()) {
+        ComponentState state = ComponentState.of(component);
+        if (!state.dependsOnAny(affectedClasses) && !affectedClasses.contains(component.getClassName())) {
+          lib.addComponent(state.getInfo(), state.getHierarchy(), state.getAttributes());
+        }
+        else if (!removedClasses.contains(component.getClassName())) {
+          classNames.add(component.getClassName());
+        }
+      }
+      Utils.inPool(getParallelism(), () -> {
+        lib.addComponents(findComponents(inspector, classNames.parallelStream()));
+        return null;
+      });
+      lib.sortComponents();
+      report.endPhase("model", start);
+      reportDiscovery();
+      reportClassLoading(inspector);
+      lib.detach();
+      return lib;
+    }
+  }
+
+  /**
+   * Adds the time spent and number of classes inspected by {@link #findComponents} to the {@link #report}.
+   */
+  public void reportDiscovery() {
+    report.addPhase("discovery", discoveryNanos.sumThenReset());
+    report.addCounter("classesScanned", classesScanned.sumThenReset());
+  }
+
+  /**
+   * Adds the time a class inspector spent loading classes to the {@link #report} as the {@code classLoading} phase.
+   * Class loading happens during discovery and resolution, so this phase is part of those phases.
+   *
+   * @param inspector Class inspector that was used to build a library.
+   */
+  public void reportClassLoading(ClassInspector inspector) {
+    report.addPhase("classLoading", inspector.getLoadingNanos());
+  }
+
+  /**
+   * Adds the resolution statistics of a built library to the {@link #report}. Call before {@link FacesLib#detach()}.
+   *
+   * @param lib Faces library model.
+   */
+  public void reportResolution(FacesLib lib) {
+    report.addPhase("resolution", lib.getResolutionNanos().values().stream().mapToLong(Long::longValue).sum());
+    report.addCounter("componentsResolved", lib.getResolutionNanos().size());
+    report.addCounter("attributeCacheHits", lib.getAttributeCacheHits());
+    report.addCounter("attributeCacheMisses", lib.getAttributeCacheMisses());
+    report.addCounter("attributesResolved", lib.getAttributesResolved());
+    report.addExpensiveComponents(lib.getResolutionNanos(), EXPENSIVE_COMPONENTS);
+  }
+
+  /**
+   * Returns the size and modification time of all class files in the {@link #classesPath} by class name. Classes are
+   * not filtered by the {@link #packageFilter package filter}, as components depend on classes in other packages.
+   *
+   * @return Size and modification time of the class files by class name.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  public Map<String, String> getClassStamps() throws IOException {
+    Map<String, String> stamps = new HashMap<>();
+    if (!Files.isDirectory(classesPath)) {
+      return stamps;
+    }
+    try (Stream<Path> files = Utils.classPaths(classesPath, 100)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        stamps.put(Utils.className(classesPath, file), Utils.fileStamp(file));
+      }
+    }
+    return stamps;
+  }
+
+  /**
+   * Returns {@link #classPathHash} which will be computed if {@code null}.
+   *
+   * @return {@link #classPathHash}.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  public String getClassPathHash() throws IOException {
+    if (classPathHash == null) {
+      classPathHash = computeClassPathHash();
+    }
+    return classPathHash;
+  }
+
+  /**
+   * Returns hash of the {@link #classPath}, except for the {@link #classesPath}. Files are hashed by path, size and
+   * modification time. Directories (of other modules) by the path, size and modification time of their class files.
+   *
+   * @return Hash of the class path.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  private String computeClassPathHash() throws IOException {
+    StringBuilder builder = new StringBuilder();
+    Path absoluteClassesPath = classesPath.toAbsolutePath();
+    for (Path path : classPath) {
+      if (path.toAbsolutePath().equals(absoluteClassesPath)) {
+        continue;
+      }
+      builder.append(path).append('\n');
+      if (Files.isRegularFile(path)) {
+        builder.append(Utils.fileStamp(path));
+      }
+      else if (Files.isDirectory(path)) {
+        try (Stream<Path> files = Files.find(path, 100, (p, a) -> Utils.isClass(p))) {
+          for (Path file : (Iterable<Path>) files.sorted()::iterator) {
+            builder.append(file).append(' ').append(Utils.fileStamp(file));
+          }
+        }
+      }
+    }
+    return Utils.hash(builder.toString());
+  }
+
+  /**
+   * Returns hash of the paths, sizes and modification times of the files in the {@link #templateDirectory}, or an
+   * empty string if not set.
+   *
+   * @return Hash of the files in the template directory.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  public String getTemplateDirectoryHash() throws IOException {
+    if (templateDirectory == null || !Files.isDirectory(templateDirectory)) {
+      return "";
+    }
+    StringBuilder builder = new StringBuilder();
+    try (Stream<Path> files = Files.walk(templateDirectory)) {
+      for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile).sorted()::iterator) {
+        builder.append(file).append(' ').append(Utils.fileStamp(file));
+      }
+    }
+    return Utils.hash(builder.toString());
+  }
+
+  /**
+   * Returns {@link #configHash} which will be computed if {@code null}.
+   *
+   * @return {@link #configHash}.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  public String getConfigHash() throws IOException {
+    if (configHash == null) {
+      configHash = Utils.hash(String.join("\n", String.valueOf(configuration), String.valueOf(discovery),
+                                          outputSettings, String.valueOf(dependencyJars),
+                                          String.valueOf(packageFilter), getTemplateDirectoryHash()));
+    }
+    return configHash;
+  }
+
+  /**
+   * Returns hash of the class files in the {@link #classesPath}: the hash of their contents kept by the
+   * {@link #getIncrementalBuild() incremental build} if the {@link #statePath} is set, else the hash of their
+   * {@link #getClassStamps() sizes and modification times}.
+   *
+   * @return Hash of the class files.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  public String getClassesHash() throws IOException {
+    if (statePath != null) {
+      return getIncrementalBuild().getClassesHash();
+    }
+    StringBuilder builder = new StringBuilder();
+    new TreeMap<>(getClassStamps()).forEach((className, stamp) -> builder.append(className).append(' ').append(stamp));
+    return Utils.hash(builder.toString());
+  }
+
+  /**
+   * Returns key identifying the model built by this generator: the classes path, and hashes of the class path,
+   * configuration and class files. Models with the same key are interchangeable.
+   *
+   * @return Key identifying the model.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  public String getModelKey() throws IOException {
+    return String.join("|",
+                       classesPath.toAbsolutePath().toString(),
+                       getClassPathHash(),
+                       getConfigHash(),
+                       getClassesHash());
+  }
+
+  /**
+   * Returns key of the outputs of a goal in an {@link org.starfaces.mavenplugin.output.OutputCache output cache}: a
+   * hash of the goal, the contents of this plugin's jar, the configuration (except for the {@code outputCache}
+   * element), the contents of the {@link #templateDirectory}, the class files and the class path entries. Paths are
+   * not part of the key (except for the order of the class path), so builds in other directories or on other machines
+   * get the same key. Checksums of jars are stored in the {@link #fingerprintPath}, if set, so unchanged jars are not
+   * read again.
+   *
+   * @param goal Name of the goal (or tool) writing the outputs.
+   *
+   * @return Key of the outputs.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  public String getOutputCacheKey(String goal) throws IOException {
+    Xpp3Dom keyConfiguration = new Xpp3Dom(configuration);
+    Xpp3Dom[] children = keyConfiguration.getChildren();
+    for (int i = children.length - 1; i >= 0; i--) {
+      if ("outputCache".equals(children[i].getName())) {
+        keyConfiguration.removeChild(i);
+      }
+    }
+    FingerprintStore fingerprints = fingerprintPath == null ? null : new FingerprintStore(fingerprintPath, debugLog);
+    StringBuilder builder = new StringBuilder(goal).append('\n');
+    builder.append(getPluginHash(fingerprints)).append('\n');
+    builder.append(keyConfiguration).append('\n').append(discovery).append('\n').append(outputSettings).append('\n');
+    for (Path jar : dependencyJars) {
+      builder.append(jar.getFileName()).append('\n');
+    }
+    builder.append(packageFilter).append('\n');
+    if (templateDirectory != null && Files.isDirectory(templateDirectory)) {
+      builder.append(getContentHash(templateDirectory, Files::isRegularFile)).append('\n');
+    }
+    if (statePath != null && Files.isDirectory(classesPath)) {
+      builder.append(getIncrementalBuild().getClassesHash()).append('\n');
+    }
+    else if (Files.isDirectory(classesPath)) {
+      builder.append(getContentHash(classesPath, Utils::isClass)).append('\n');
+    }
+    Path absoluteClassesPath = classesPath.toAbsolutePath();
+    for (Path path : classPath) {
+      if (path.toAbsolutePath().equals(absoluteClassesPath)) {
+        continue;
+      }
+      if (Files.isRegularFile(path)) {
+        builder.append(path.getFileName()).append(' ').append(fileHash(path, fingerprints)).append('\n');
+      }
+      else if (Files.isDirectory(path)) {
+        builder.append(getContentHash(path, Utils::isClass)).append('\n');
+      }
+    }
+    if (fingerprints != null) {
+      fingerprints.save();
+    }
+    return Utils.hash(builder.toString());
+  }
+
+  /**
+   * Returns hash of the contents of a file, using the fingerprints of the last build if available.
+   *
+   * @param file         File to hash.
+   * @param fingerprints Fingerprints of the last build, or {@code null} to always read the file.
+   *
+   * @return Hash of the contents of the file.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  private static String fileHash(Path file, FingerprintStore fingerprints) throws IOException {
+    return fingerprints == null ? Utils.hash(file) : fingerprints.hash(file);
+  }
+
+  /**
+   * Returns hash of the contents of this plugin's jar, or of its version if not loaded from a jar.
+   *
+   * @param fingerprints Fingerprints of the last build, or {@code null} to always read the jar.
+   *
+   * @return Hash identifying this plugin.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  private static String getPluginHash(FingerprintStore fingerprints) throws IOException {
+    try {
+      Path location = Paths.get(FacesLibGenerator.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+      if (Files.isRegularFile(location)) {
+        return fileHash(location, fingerprints);
+      }
+    }
+    catch (URISyntaxException ex) {
+      throw new IllegalStateException(ex);
+    }
+    return String.valueOf(FacesLibGenerator.class.getPackage().getImplementationVersion());
+  }
+
+  /**
+   * Returns hash of the relative paths and contents of the files in a directory. Files are hashed in parallel.
+   *
+   * @param directory Directory to hash.
+   * @param filter    Filter on the files to hash.
+   *
+   * @return Hash of the files in the directory.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  private String getContentHash(Path directory, Predicate<Path> filter) throws IOException {
+    return Utils.inPool(getParallelism(), () -> {
+      try (Stream<Path> files = Files.walk(directory)) {
+        return Utils.hash(files.filter(filter).sorted().collect(Collectors.toList()).parallelStream()
+                .map(f -> directory.relativize(f).toString().replace(File.separatorChar, '/') + ' ' + contentHash(f))
+                .collect(Collectors.joining("\n")));
+      }
+    });
+  }
+
+  /**
+   * Returns hash of the contents of a file, wrapping I/O exceptions so it can be used in streams.
+   *
+   * @param file File to hash.
+   *
+   * @return Hash of the contents of the file.
+   */
+  private static String contentHash(Path file) {
+    try {
+      return Utils.hash(file);
+    }
+    catch (IOException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  /**
+   * Returns {@link #incrementalBuild} which will be created (scanning the classes path) if {@code null}. Requires the
+   * {@link #statePath} to be set.
+   *
+   * @return {@link #incrementalBuild}.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  private IncrementalBuild getIncrementalBuild() throws IOException {
+    if (incrementalBuild == null) {
+      long start = System.nanoTime();
+      String stateClassPathHash = getClassPathHash();
+      String stateConfigHash = getConfigHash();
+      incrementalBuild = Utils.inPool(getParallelism(),
+                                      () -> new IncrementalBuild(statePath, classesPath, 100, packageFilter,
+                                                                 stateClassPathHash, stateConfigHash, debugLog));
+      report.endPhase("fingerprint", start);
+    }
+    return incrementalBuild;
+  }
+
+  /**
+   * Returns {@code true} if the {@link #statePath} is set, there is a valid state and no class files changed since.
+   *
+   * @return {@code true} if the model of the last generation is up to date.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  public boolean isUpToDate() throws IOException {
+    return statePath != null && getIncrementalBuild().isUpToDate();
+  }
+
+  /**
+   * Stores the state of a generation to the {@link #statePath}, if set.
+   *
+   * @param lib Faces library model that was generated.
+   *
+   * @throws IOException If any exceptions happen writing.
+   */
+  public void saveState(FacesLib lib) throws IOException {
+    if (statePath != null) {
+      getIncrementalBuild().save(lib);
+    }
+  }
+
+  /**
+   * Discards the class file fingerprints, so the classes path is scanned again by {@link #isUpToDate()} or
+   * {@link #saveState(FacesLib)}. Call it after writing class files to the classes path (like a compiled registry), so
+   * the saved state includes them and the next generation is up to date.
+   */
+  public void rescanClasses() {
+    incrementalBuild = null;
+  }
+
+  /**
+   * Stores the class file fingerprints to the {@link #statePath}, if set, without a model. Used when the outputs were
+   * not generated (like when restored from an output cache), so the next generation is {@link #isUpToDate() up to
+   * date} if nothing changed.
+   *
+   * @throws IOException If any exceptions happen writing.
+   */
+  public void saveFingerprints() throws IOException {
+    if (statePath != null) {
+      getIncrementalBuild().saveFingerprints();
+    }
+  }
+
+  /**
+   * Renders a model to the provided destination. The destination is only written if its content changes.
+   *
+   * @param renderer    Renderer to use.
+   * @param lib         Model to render.
+   * @param destination Path to write rendered output to.
+   *
+   * @return Whether the destination was created, updated or unchanged.
+   *
+   * @throws IOException If any exceptions happen rendering or writing.
+   */
+  public OutputStatus render(Renderer renderer, FacesLib lib, Path destination) throws IOException {
+    long start = System.nanoTime();
+    OutputSink sink = new OutputSink(destination);
+    renderer.render(lib, sink.getOutputStream());
+    report.endPhase("render", start);
+    start = System.nanoTime();
+    OutputStatus status = sink.commit();
+    report.endPhase("write", start);
+    report.addOutput(destination, status, sink.size());
+    return status;
+  }
+
+  /**
+   * Returns FreeMarker configuration for the {@link #templateDirectory}.
+   *
+   * @return FreeMarker configuration.
+   */
+  public Configuration getFreeMarkerConfiguration() {
+    return getFreeMarkerConfiguration(templateDirectory);
+  }
+
+  /**
+   * Returns FreeMarker configuration for a user template directory, or the configuration only loading this plugin's
+   * templates if {@code null}. Configurations are shared by all generators in the JVM.
+   *
+   * @param templateDirectory Directory containing user templates, or {@code null}.
+   *
+   * @return FreeMarker configuration.
+   */
+  public static Configuration getFreeMarkerConfiguration(Path templateDirectory) {
+    if (templateDirectory == null) {
+      return FREEMARKER_CONF;
+    }
+    return FREEMARKER_DIR_CONFS.computeIfAbsent(templateDirectory.toAbsolutePath(), d -> {
+      try {
+        MultiTemplateLoader loader = new MultiTemplateLoader(new TemplateLoader[]{
+          new FileTemplateLoader(d.toFile()),
+          FREEMARKER_CONF.getTemplateLoader()
+        });
+        loader.setSticky(false);
+        return newFreeMarkerConfiguration(loader);
+      }
+      catch (IOException ex) {
+        throw new IllegalStateException(ex);
+      }
+    });
+  }
+
+  /**
+   * Creates FreeMarker configuration using the provided template loader. Templates are read as UTF-8 and parsed
+   * templates are cached by name. The last modified time of a cached template is checked on every use, so changed
+   * templates are reloaded.
+   *
+   * @param templateLoader Template loader.
+   *
+   * @return FreeMarker configuration.
+   */
+  private static Configuration newFreeMarkerConfiguration(TemplateLoader templateLoader) {
+    Configuration configuration = new Configuration(Configuration.VERSION_2_3_28);
+    configuration.setTemplateLoader(templateLoader);
+    configuration.setDefaultEncoding(StandardCharsets.UTF_8.name());
+    configuration.setCacheStorage(new MruCacheStorage(20, 250));
+    configuration.setTemplateUpdateDelayMilliseconds(0);
+    return configuration;
+  }
+
+}
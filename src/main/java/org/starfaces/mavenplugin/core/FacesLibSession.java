@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.starfaces.mavenplugin.model.FacesLib;
+import org.starfaces.mavenplugin.output.OutputStatus;
+import org.starfaces.mavenplugin.output.Renderer;
+import org.starfaces.mavenplugin.util.Utils;
+
+/**
+ * Keeps the model of a classes directory between generations, for long-lived processes like the
+ * {@link org.starfaces.mavenplugin.cli.StarFacesCli daemon} or IDE tooling. A generation compares the size and
+ * modification time of the class files with the ones of the previous generation and only inspects the changed classes
+ * (and the components depending on them). The model is built again when the class path or the
+ * {@link FacesLibGenerator#getSettings() settings} changed. Outputs are not rendered again when the model, the
+ * renderer and the output file did not change since they were rendered by this session. Methods of a session are
+ * synchronized; synchronize on the session to run a generation (getting the model and rendering) atomically.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class FacesLibSession {
+
+  /**
+   * Settings of the generator that built {@link #facesLib}.
+   */
+  private String settings;
+
+  /**
+   * Hash of the class path {@link #facesLib} was built with.
+   */
+  private String classPathHash;
+
+  /**
+   * Size and modification time of the class files by class name {@link #facesLib} was built from.
+   */
+  private Map<String, String> classStamps = Collections.emptyMap();
+
+  /**
+   * Model of the last generation, {@code null} before the first one.
+   */
+  private FacesLib facesLib;
+
+  /**
+   * Number of times {@link #facesLib} was built or updated.
+   */
+  private long modelVersion;
+
+  /**
+   * Per output file the {@link #modelVersion}, renderer key and size and modification time it was rendered with.
+   */
+  private final Map<Path, String> renderedOutputs = new HashMap<>();
+
+  /**
+   * Returns the up to date model: the model of the last generation if nothing changed, the model updated for the
+   * changed classes, or a new model if the class path or settings changed. The counters {@code modelBuilt},
+   * {@code modelUpdated} or {@code modelCached} and {@code classesChanged} are added to the
+   * {@link FacesLibGenerator#getReport() report} of the generator.
+   *
+   * @param generator Generator to build or update the model with.
+   *
+   * @return Up to date model.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  public synchronized FacesLib getFacesLib(FacesLibGenerator generator) throws IOException {
+    long start = System.nanoTime();
+    String newSettings = generator.getSettings();
+    String newClassPathHash = generator.getClassPathHash();
+    Map<String, String> newClassStamps = generator.getClassStamps();
+    generator.getReport().endPhase("fingerprint", start);
+    if (facesLib == null || !newSettings.equals(settings) || !newClassPathHash.equals(classPathHash)) {
+      facesLib = generator.build();
+      modelVersion++;
+      generator.getReport().addCounter("modelBuilt", 1);
+    }
+    else {
+      Set<String> changedClasses = getChangedClasses(newClassStamps);
+      generator.getReport().addCounter("classesChanged", changedClasses.size());
+      if (changedClasses.isEmpty()) {
+        generator.getReport().addCounter("modelCached", 1);
+      }
+      else {
+        facesLib = generator.update(facesLib, changedClasses);
+        modelVersion++;
+        generator.getReport().addCounter("modelUpdated", 1);
+      }
+    }
+    settings = newSettings;
+    classPathHash = newClassPathHash;
+    classStamps = newClassStamps;
+    return facesLib;
+  }
+
+  /**
+   * Renders the {@link #getFacesLib(FacesLibGenerator) model} to the provided destination, unless the same model was
+   * rendered to it using a renderer with the same key and the destination did not change since. Skipped outputs are
+   * reported as unchanged and counted as {@code outputsSkipped}.
+   *
+   * @param generator   Generator to render with.
+   * @param renderer    Renderer to use.
+   * @param rendererKey Key identifying the renderer and everything affecting its output (like the template and the
+   *                    contents of the template directory).
+   * @param destination Path to write rendered output to.
+   *
+   * @return Whether the destination was created, updated or unchanged.
+   *
+   * @throws IOException If any exceptions happen rendering or writing.
+   */
+  public synchronized OutputStatus render(FacesLibGenerator generator, Renderer renderer, String rendererKey,
+                                          Path destination) throws IOException {
+    if (facesLib == null) {
+      throw new IllegalStateException("No model, call getFacesLib first");
+    }
+    Path output = destination.toAbsolutePath();
+    String rendered = renderedOutputs.get(output);
+    if (rendered != null && Files.isRegularFile(output)
+        && rendered.equals(modelVersion + " " + rendererKey + '\n' + Utils.fileStamp(output))) {
+      generator.getReport().addOutput(output, OutputStatus.UNCHANGED, Files.size(output));
+      generator.getReport().addCounter("outputsSkipped", 1);
+      return OutputStatus.UNCHANGED;
+    }
+    renderedOutputs.remove(output);
+    OutputStatus status = generator.render(renderer, facesLib, output);
+    renderedOutputs.put(output, modelVersion + " " + rendererKey + '\n' + Utils.fileStamp(output));
+    return status;
+  }
+
+  /**
+   * Returns names of the classes that were added, changed or removed since the last generation.
+   *
+   * @param newClassStamps Size and modification time of the current class files by class name.
+   *
+   * @return Names of the changed classes.
+   */
+  private Set<String> getChangedClasses(Map<String, String> newClassStamps) {
+    Set<String> changedClasses = new HashSet<>();
+    newClassStamps.forEach((className, stamp) -> {
+      if (!Objects.equals(stamp, classStamps.get(className))) {
+        changedClasses.add(className);
+      }
+    });
+    classStamps.keySet().stream().filter(c -> !newClassStamps.containsKey(c)).forEach(changedClasses::add);
+    return changedClasses;
+  }
+
+  /**
+   * Forgets the model, so the next generation builds it again.
+   */
+  public synchronized void clear() {
+    settings = null;
+    classPathHash = null;
+    classStamps = Collections.emptyMap();
+    facesLib = null;
+    renderedOutputs.clear();
+  }
+
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.incremental;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.starfaces.mavenplugin.inspect.AttributeInfo;
+import org.starfaces.mavenplugin.inspect.ComponentInfo;
+import org.starfaces.mavenplugin.util.Utils;
+
+/**
+ * State of the last generation: hashes of the compile class path and plugin configuration, fingerprints of all
+ * scanned class files and the resolved components. When the outputs were restored from an output cache instead of
+ * generated, only the fingerprints are stored.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class BuildState {
+
+  /**
+   * State file format version. Increase when the format or the generated output changes.
+   */
+  private static final int VERSION = 2;
+
+  /**
+   * Hash of the compile class path.
+   */
+  private final String classPathHash;
+
+  /**
+   * Hash of the plugin configuration.
+   */
+  private final String configHash;
+
+  /**
+   * Class file fingerprints by class name.
+   */
+  private final Map<String, FileFingerprint> classFiles;
+
+  /**
+   * Resolved components, or {@code null} if only the fingerprints were stored.
+   */
+  private final List<ComponentState> components;
+
+  /**
+   * Create build state.
+   *
+   * @param classPathHash Sets {@link #classPathHash}.
+   * @param configHash    Sets {@link #configHash}.
+   * @param classFiles    Sets {@link #classFiles}.
+   * @param components    Sets {@link #components}, {@code null} to only store the fingerprints.
+   */
+  public BuildState(String classPathHash,
+                    String configHash,
+                    Map<String, FileFingerprint> classFiles,
+                    List<ComponentState> components) {
+    this.classPathHash = classPathHash;
+    this.configHash = configHash;
+    this.classFiles = classFiles;
+    this.components = components;
+  }
+
+  /**
+   * Reads build state from file. A file that cannot be read (like a truncated or corrupt file) is logged and ignored,
+   * so the next generation is a full generation.
+   *
+   * @param file     State file.
+   * @param debugLog Logs debug messages.
+   *
+   * @return Build state or {@code null} if the file does not exist, was written by another version or cannot be read.
+   */
+  public static BuildState read(Path file, Consumer<String> debugLog) {
+    if (!Files.isRegularFile(file)) {
+      return null;
+    }
+    try {
+      return readState(file);
+    }
+    catch (IOException | RuntimeException ex) {
+      debugLog.accept(String.format("Ignoring unreadable state %s: %s", file, ex));
+      return null;
+    }
+  }
+
+  /**
+   * Reads build state from file.
+   *
+   * @param file State file.
+   *
+   * @return Build state or {@code null} if the file was written by another version.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  private static BuildState readState(Path file) throws IOException {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != VERSION) {
+        return null;
+      }
+      String classPathHash = in.readUTF();
+      String configHash = in.readUTF();
+      int classFileCount = in.readInt();
+      Map<String, FileFingerprint> classFiles = new LinkedHashMap<>();
+      for (int i = 0; i < classFileCount; i++) {
+        classFiles.put(in.readUTF(), new FileFingerprint(in.readLong(), in.readLong(), in.readUTF()));
+      }
+      int componentCount = in.readInt();
+      List<ComponentState> components = componentCount < 0 ? null : new ArrayList<>(componentCount);
+      for (int i = 0; i < componentCount; i++) {
+        components.add(readComponent(in));
+      }
+      return new BuildState(classPathHash, configHash, classFiles, components);
+    }
+  }
+
+  /**
+   * Writes build state to file, creating parent directories if needed. The state is written to a temporary file which
+   * is {@link Utils#moveAtomically moved} into place.
+   *
+   * @param file State file.
+   *
+   * @throws IOException If any exceptions happen writing.
+   */
+  public void write(Path file) throws IOException {
+    writeAtomically(file, out -> {
+      out.writeInt(VERSION);
+      out.writeUTF(classPathHash);
+      out.writeUTF(configHash);
+      out.writeInt(classFiles.size());
+      for (Map.Entry<String, FileFingerprint> entry : classFiles.entrySet()) {
+        out.writeUTF(entry.getKey());
+        out.writeLong(entry.getValue().getSize());
+        out.writeLong(entry.getValue().getLastModified());
+        out.writeUTF(entry.getValue().getHash());
+      }
+      if (components == null) {
+        out.writeInt(-1);
+        return;
+      }
+      out.writeInt(components.size());
+      for (ComponentState component : components) {
+        writeComponent(out, component);
+      }
+    });
+  }
+
+  /**
+   * Writes a file using a temporary file which is {@link Utils#moveAtomically moved} into place, creating parent
+   * directories if needed. So readers never see a partially written file.
+   *
+   * @param file   File to write.
+   * @param writer Writes the content.
+   *
+   * @throws IOException If any exceptions happen writing.
+   */
+  static void writeAtomically(Path file, DataWriter writer) throws IOException {
+    Files.createDirectories(file.getParent());
+    Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+    try {
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+        writer.write(out);
+      }
+      Utils.moveAtomically(temp, file);
+    }
+    finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /**
+   * Reads component.
+   *
+   * @param in Input to read from.
+   *
+   * @return Component state.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  static ComponentState readComponent(DataInput in) throws IOException {
+    ComponentInfo info = readInfo(in);
+    int hierarchyCount = in.readInt();
+    List<String> hierarchy = new ArrayList<>(hierarchyCount);
+    for (int i = 0; i < hierarchyCount; i++) {
+      hierarchy.add(in.readUTF());
+    }
+    int attributeCount = in.readInt();
+    Map<String, AttributeInfo> attributes = new LinkedHashMap<>();
+    for (int i = 0; i < attributeCount; i++) {
+      attributes.put(in.readUTF(), new AttributeInfo(in.readBoolean(), in.readUTF(), readString(in)));
+    }
+    return new ComponentState(info, hierarchy, attributes);
+  }
+
+  /**
+   * Writes component.
+   *
+   * @param out       Output to write to.
+   * @param component Component state to write.
+   *
+   * @throws IOException If any exceptions happen writing.
+   */
+  static void writeComponent(DataOutput out, ComponentState component) throws IOException {
+    writeInfo(out, component.getInfo());
+    out.writeInt(component.getHierarchy().size());
+    for (String className : component.getHierarchy()) {
+      out.writeUTF(className);
+    }
+    out.writeInt(component.getAttributes().size());
+    for (Map.Entry<String, AttributeInfo> entry : component.getAttributes().entrySet()) {
+      out.writeUTF(entry.getKey());
+      out.writeBoolean(entry.getValue().isRequired());
+      out.writeUTF(entry.getValue().getType());
+      writeString(out, entry.getValue().getDescription());
+    }
+  }
+
+  /**
+   * Reads component information.
+   *
+   * @param in Input to read from.
+   *
+   * @return Component information.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  static ComponentInfo readInfo(DataInput in) throws IOException {
+    return new ComponentInfo(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(), readString(in));
+  }
+
+  /**
+   * Writes component information.
+   *
+   * @param out  Output to write to.
+   * @param info Component information to write.
+   *
+   * @throws IOException If any exceptions happen writing.
+   */
+  static void writeInfo(DataOutput out, ComponentInfo info) throws IOException {
+    out.writeUTF(info.getClassName());
+    out.writeUTF(info.getSimpleName());
+    out.writeUTF(info.getTagName());
+    out.writeUTF(info.getType());
+    writeString(out, info.getDescription());
+  }
+
+  /**
+   * Reads string of any length which can be {@code null}.
+   *
+   * @param in Input to read from.
+   *
+   * @return String read or {@code null}.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  static String readString(DataInput in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Writes string of any length which can be {@code null}.
+   *
+   * @param out    Output to write to.
+   * @param string String to write or {@code null}.
+   *
+   * @throws IOException If any exceptions happen writing.
+   */
+  static void writeString(DataOutput out, String string) throws IOException {
+    if (string == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  /**
+   * Returns {@link #classPathHash}.
+   *
+   * @return {@link #classPathHash}.
+   */
+  public String getClassPathHash() {
+    return classPathHash;
+  }
+
+  /**
+   * Returns {@link #configHash}.
+   *
+   * @return {@link #configHash}.
+   */
+  public String getConfigHash() {
+    return configHash;
+  }
+
+  /**
+   * Returns {@link #classFiles}.
+   *
+   * @return {@link #classFiles}.
+   */
+  public Map<String, FileFingerprint> getClassFiles() {
+    return Collections.unmodifiableMap(classFiles);
+  }
+
+  /**
+   * Returns {@link #components}.
+   *
+   * @return {@link #components}.
+   */
+  public List<ComponentState> getComponents() {
+    return components == null ? null : Collections.unmodifiableList(components);
+  }
+
+  /**
+   * Writes data to an output.
+   */
+  interface DataWriter {
+
+    /**
+     * Writes data.
+     *
+     * @param out Output to write to.
+     *
+     * @throws IOException If any exceptions happen writing.
+     */
+    void write(DataOutputStream out) throws IOException;
+
+  }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.incremental;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.starfaces.mavenplugin.model.FacesLib;
+
+/**
+ * Prebuilt index of the resolved components of a library, stored in its jar as {@link #PATH}. Builds using the jar
+ * can read the index instead of inspecting the classes in the jar.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class ComponentIndex {
+
+  /**
+   * Path of the index in a jar (or classes directory).
+   */
+  public static final String PATH = "META-INF/starfaces.idx";
+
+  /**
+   * Magic number identifying index files ("SFIX").
+   */
+  private static final int MAGIC = 0x53464958;
+
+  /**
+   * Index format version. Increase when the format changes.
+   */
+  private static final int VERSION = 1;
+
+  /**
+   * Resolved components.
+   */
+  private final List<ComponentState> components;
+
+  /**
+   * Create index.
+   *
+   * @param components Sets {@link #components}.
+   */
+  public ComponentIndex(List<ComponentState> components) {
+    this.components = components;
+  }
+
+  /**
+   * Create index of the components of a faces library model.
+   *
+   * @param facesLib Faces library model.
+   *
+   * @return Index of the components.
+   */
+  public static ComponentIndex of(FacesLib facesLib) {
+    return new ComponentIndex(facesLib.getComponents().stream()
+            .map(ComponentState::of)
+            .collect(Collectors.toList()));
+  }
+
+  /**
+   * Reads index from the provided stream. The stream is not closed.
+   *
+   * @param in Stream to read from.
+   *
+   * @return Index or {@code null} if the stream does not contain an index of this version.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  public static ComponentIndex read(InputStream in) throws IOException {
+    DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+    if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+      return null;
+    }
+    int count = data.readInt();
+    List<ComponentState> components = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      components.add(BuildState.readComponent(data));
+    }
+    return new ComponentIndex(components);
+  }
+
+  /**
+   * Reads index from a jar file.
+   *
+   * @param jar Jar file.
+   *
+   * @return Index or {@code null} if the jar does not contain an index (of this version).
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  public static ComponentIndex read(Path jar) throws IOException {
+    try (ZipFile zip = new ZipFile(jar.toFile())) {
+      ZipEntry entry = zip.getEntry(PATH);
+      if (entry == null) {
+        return null;
+      }
+      try (InputStream in = zip.getInputStream(entry)) {
+        return read(in);
+      }
+    }
+  }
+
+  /**
+   * Writes index to the provided stream. The stream is flushed, but not closed.
+   *
+   * @param out Stream to write to.
+   *
+   * @throws IOException If any exceptions happen writing.
+   */
+  public void write(OutputStream out) throws IOException {
+    DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+    data.writeInt(MAGIC);
+    data.writeInt(VERSION);
+    data.writeInt(components.size());
+    for (ComponentState component : components) {
+      BuildState.writeComponent(data, component);
+    }
+    data.flush();
+  }
+
+  /**
+   * Returns {@link #components}.
+   *
+   * @return {@link #components}.
+   */
+  public List<ComponentState> getComponents() {
+    return Collections.unmodifiableList(components);
+  }
+
+  /**
+   * @return {@inheritDoc }
+   */
+  @Override
+  public String toString() {
+    return "ComponentIndex{" + "components=" + components.size() + '}';
+  }
+
+}
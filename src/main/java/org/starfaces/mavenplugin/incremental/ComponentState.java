@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.incremental;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.starfaces.mavenplugin.inspect.AttributeInfo;
+import org.starfaces.mavenplugin.inspect.ComponentInfo;
+import org.starfaces.mavenplugin.model.CompAttribute;
+import org.starfaces.mavenplugin.model.LibComponent;
+
+/**
+ * Resolved component as stored in the {@link BuildState}.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class ComponentState {
+
+  /**
+   * Component information (the tag name is the resolved tag name).
+   */
+  private final ComponentInfo info;
+
+  /**
+   * Names of the classes the attributes were read from.
+   */
+  private final List<String> hierarchy;
+
+  /**
+   * Attributes by name.
+   */
+  private final Map<String, AttributeInfo> attributes;
+
+  /**
+   * Create component state.
+   *
+   * @param info       Sets {@link #info}.
+   * @param hierarchy  Sets {@link #hierarchy}.
+   * @param attributes Sets {@link #attributes}.
+   */
+  public ComponentState(ComponentInfo info, List<String> hierarchy, Map<String, AttributeInfo> attributes) {
+    this.info = info;
+    this.hierarchy = hierarchy;
+    this.attributes = attributes;
+  }
+
+  /**
+   * Create component state from library component.
+   *
+   * @param component Library component.
+   *
+   * @return Component state.
+   */
+  public static ComponentState of(LibComponent component) {
+    String className = component.getClassName();
+    ComponentInfo info = new ComponentInfo(className,
+                                           className.substring(className.lastIndexOf('.') + 1),
+                                           component.getName(),
+                                           component.getType(),
+                                           component.getDescription());
+    Map<String, AttributeInfo> attributes = new LinkedHashMap<>();
+    for (CompAttribute attribute : component.getAttributes()) {
+      attributes.put(attribute.getName(), new AttributeInfo(attribute.isRequired(),
+                                                            attribute.getType(),
+                                                            attribute.getDescription()));
+    }
+    return new ComponentState(info, component.getHierarchy(), attributes);
+  }
+
+  /**
+   * Returns {@link #info}.
+   *
+   * @return {@link #info}.
+   */
+  public ComponentInfo getInfo() {
+    return info;
+  }
+
+  /**
+   * Returns {@link #hierarchy}.
+   *
+   * @return {@link #hierarchy}.
+   */
+  public List<String> getHierarchy() {
+    return Collections.unmodifiableList(hierarchy);
+  }
+
+  /**
+   * Returns {@link #attributes}.
+   *
+   * @return {@link #attributes}.
+   */
+  public Map<String, AttributeInfo> getAttributes() {
+    return Collections.unmodifiableMap(attributes);
+  }
+
+  /**
+   * Returns {@code true} if any of the classes in the {@link #hierarchy} is in the provided collection. Attributes are
+   * read from nested classes (like {@code PropertyKeys}) as well, so pass changed class names through
+   * {@link #withOuterClasses(Collection)} first.
+   *
+   * @param classNames Class names to check.
+   *
+   * @return {@code true} if any of the classes in the {@link #hierarchy} is in the provided collection.
+   */
+  public boolean dependsOnAny(Collection<String> classNames) {
+    return hierarchy.stream().anyMatch(classNames::contains);
+  }
+
+  /**
+   * Returns the provided class names together with the names of the classes they are nested in, so a change of
+   * {@code Foo$PropertyKeys} is seen as a change of {@code Foo}.
+   *
+   * @param classNames Class names.
+   *
+   * @return Class names and the names of their outer classes.
+   */
+  public static Set<String> withOuterClasses(Collection<String> classNames) {
+    Set<String> result = new HashSet<>(classNames);
+    for (String className : classNames) {
+      for (int i = className.lastIndexOf('$'); i > 0; i = className.lastIndexOf('$', i - 1)) {
+        result.add(className.substring(0, i));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return {@inheritDoc }
+   */
+  @Override
+  public String toString() {
+    return "ComponentState{" + "info=" + info + ", hierarchy=" + hierarchy + '}';
+  }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.incremental;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import org.starfaces.mavenplugin.util.Utils;
+
+/**
+ * Size, modification time and content hash of a file.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class FileFingerprint {
+
+  /**
+   * File size in bytes.
+   */
+  private final long size;
+
+  /**
+   * Last modified time in milliseconds.
+   */
+  private final long lastModified;
+
+  /**
+   * Hexadecimal SHA-256 hash of the file contents.
+   */
+  private final String hash;
+
+  /**
+   * Create fingerprint.
+   *
+   * @param size         Sets {@link #size}.
+   * @param lastModified Sets {@link #lastModified}.
+   * @param hash         Sets {@link #hash}.
+   */
+  public FileFingerprint(long size, long lastModified, String hash) {
+    this.size = size;
+    this.lastModified = lastModified;
+    this.hash = hash;
+  }
+
+  /**
+   * Returns fingerprint of file. The file is only read (streamed) to compute the hash if its size or modification time
+   * differ from the previous fingerprint.
+   *
+   * @param file     File to fingerprint.
+   * @param previous Previous fingerprint of the file or {@code null}.
+   *
+   * @return Fingerprint of file.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  public static FileFingerprint of(Path file, FileFingerprint previous) throws IOException {
+    long size = Files.size(file);
+    long lastModified = Files.getLastModifiedTime(file).toMillis();
+    if (previous != null && previous.size == size && previous.lastModified == lastModified) {
+      return previous;
+    }
+    return new FileFingerprint(size, lastModified, Utils.hash(file));
+  }
+
+  /**
+   * Returns {@link #size}.
+   *
+   * @return {@link #size}.
+   */
+  public long getSize() {
+    return size;
+  }
+
+  /**
+   * Returns {@link #lastModified}.
+   *
+   * @return {@link #lastModified}.
+   */
+  public long getLastModified() {
+    return lastModified;
+  }
+
+  /**
+   * Returns {@link #hash}.
+   *
+   * @return {@link #hash}.
+   */
+  public String getHash() {
+    return hash;
+  }
+
+  /**
+   * Returns {@code true} if the content hash of both fingerprints is equal.
+   *
+   * @param other Fingerprint to compare with (can be {@code null}).
+   *
+   * @return {@code true} if the content hash of both fingerprints is equal.
+   */
+  public boolean sameContent(FileFingerprint other) {
+    return other != null && Objects.equals(hash, other.hash);
+  }
+
+  /**
+   * @return {@inheritDoc }
+   */
+  @Override
+  public String toString() {
+    return "FileFingerprint{" + "size=" + size + ", lastModified=" + lastModified + ", hash=" + hash + '}';
+  }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.incremental;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * File storing {@link FileFingerprint fingerprints} by absolute file path, so the checksum of a file (like a jar on
+ * the class path) is only computed again when its size or modification time changed since the last build. The file is
+ * written atomically; a file that cannot be read is ignored.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class FingerprintStore {
+
+  /**
+   * File format version. Increase when the format changes.
+   */
+  private static final int VERSION = 1;
+
+  /**
+   * File storing the fingerprints.
+   */
+  private final Path file;
+
+  /**
+   * Fingerprints by absolute file path.
+   */
+  private final Map<String, FileFingerprint> fingerprints = new ConcurrentHashMap<>();
+
+  /**
+   * Absolute paths of the files hashed since this store was created.
+   */
+  private final Set<String> usedFiles = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Create store, reading the fingerprints of the last build.
+   *
+   * @param file     Sets {@link #file}.
+   * @param debugLog Logs debug messages, like why the file is ignored.
+   */
+  public FingerprintStore(Path file, Consumer<String> debugLog) {
+    this.file = file;
+    if (Files.isRegularFile(file)) {
+      try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+        if (in.readInt() == VERSION) {
+          int count = in.readInt();
+          Map<String, FileFingerprint> read = new HashMap<>();
+          for (int i = 0; i < count; i++) {
+            read.put(in.readUTF(), new FileFingerprint(in.readLong(), in.readLong(), in.readUTF()));
+          }
+          fingerprints.putAll(read);
+        }
+      }
+      catch (IOException | RuntimeException ex) {
+        debugLog.accept(String.format("Ignoring unreadable fingerprints %s: %s", file, ex));
+      }
+    }
+  }
+
+  /**
+   * Returns the SHA-256 checksum of a file, which is only computed if the size or modification time of the file
+   * changed since the last build.
+   *
+   * @param path File to hash.
+   *
+   * @return Checksum of the file.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  public String hash(Path path) throws IOException {
+    String key = path.toAbsolutePath().toString();
+    FileFingerprint fingerprint = FileFingerprint.of(path, fingerprints.get(key));
+    fingerprints.put(key, fingerprint);
+    usedFiles.add(key);
+    return fingerprint.getHash();
+  }
+
+  /**
+   * Writes the fingerprints of the files hashed since this store was created, so unchanged files do not need to be
+   * hashed again in the next build.
+   *
+   * @throws IOException If any exceptions happen writing.
+   */
+  public void save() throws IOException {
+    Map<String, FileFingerprint> sorted = new TreeMap<>(fingerprints);
+    sorted.keySet().retainAll(usedFiles);
+    BuildState.writeAtomically(file, out -> {
+      out.writeInt(VERSION);
+      out.writeInt(sorted.size());
+      for (Map.Entry<String, FileFingerprint> entry : sorted.entrySet()) {
+        out.writeUTF(entry.getKey());
+        out.writeLong(entry.getValue().getSize());
+        out.writeLong(entry.getValue().getLastModified());
+        out.writeUTF(entry.getValue().getHash());
+      }
+    });
+  }
+
+}
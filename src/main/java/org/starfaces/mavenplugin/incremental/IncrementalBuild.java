@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.incremental;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.starfaces.mavenplugin.model.FacesLib;
+import org.starfaces.mavenplugin.util.PackageFilter;
+import org.starfaces.mavenplugin.util.Utils;
+
+/**
+ * Compares the class files in the classes path with the {@link BuildState} of the last generation to find out which
+ * components can be reused and which classes need to be inspected again.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class IncrementalBuild {
+
+  /**
+   * State file.
+   */
+  private final Path stateFile;
+
+  /**
+   * Filter on the packages of the classes to inspect.
+   */
+  private final PackageFilter filter;
+
+  /**
+   * Hash of the compile class path.
+   */
+  private final String classPathHash;
+
+  /**
+   * Hash of the plugin configuration.
+   */
+  private final String configHash;
+
+  /**
+   * Previous state or {@code null} if there is no (valid) previous state.
+   */
+  private final BuildState previous;
+
+  /**
+   * Current class file fingerprints by class name.
+   */
+  private final Map<String, FileFingerprint> classFiles = new TreeMap<>();
+
+  /**
+   * Names of classes that were added, changed or removed since the previous state.
+   */
+  private final Set<String> changedClasses = new HashSet<>();
+
+  /**
+   * {@link #changedClasses} and the classes they are nested in, see {@link ComponentState#withOuterClasses}.
+   */
+  private final Set<String> affectedClasses;
+
+  /**
+   * Scans the classes path and compares it with the previous state. Class files are fingerprinted using a parallel
+   * stream. All class files are fingerprinted, as components depend on classes (like super classes) in packages that
+   * are not accepted by the filter.
+   *
+   * @param stateFile     Sets {@link #stateFile}.
+   * @param classesPath   Classes path to scan.
+   * @param maxDepth      The maximum number of directory levels to search.
+   * @param filter        Sets {@link #filter}.
+   * @param classPathHash Sets {@link #classPathHash}.
+   * @param configHash    Sets {@link #configHash}.
+   * @param debugLog      Logs debug messages, like why the previous state is ignored.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  public IncrementalBuild(Path stateFile, Path classesPath, int maxDepth, PackageFilter filter, String classPathHash,
+                          String configHash, Consumer<String> debugLog) throws IOException {
+    this.stateFile = stateFile;
+    this.filter = filter;
+    this.classPathHash = classPathHash;
+    this.configHash = configHash;
+    BuildState state = BuildState.read(stateFile, debugLog);
+    if (state != null
+        && (!classPathHash.equals(state.getClassPathHash()) || !configHash.equals(state.getConfigHash()))) {
+      state = null;
+    }
+    this.previous = state;
+    Map<String, FileFingerprint> previousFiles = previous == null
+                                                 ? Collections.emptyMap()
+                                                 : previous.getClassFiles();
+    Map<String, Path> paths = Utils.classPaths(classesPath, maxDepth)
+            .collect(Collectors.toConcurrentMap(p -> Utils.className(classesPath, p), Function.identity()));
+    classFiles.putAll(paths.entrySet().parallelStream()
+            .collect(Collectors.toConcurrentMap(Map.Entry::getKey,
+                                                e -> fingerprint(e.getValue(), previousFiles.get(e.getKey())))));
+    classFiles.forEach((className, fingerprint) -> {
+      if (!fingerprint.sameContent(previousFiles.get(className))) {
+        changedClasses.add(className);
+      }
+    });
+    previousFiles.keySet().stream()
+            .filter(c -> !classFiles.containsKey(c))
+            .forEach(changedClasses::add);
+    affectedClasses = ComponentState.withOuterClasses(changedClasses);
+  }
+
+  /**
+   * Returns fingerprint of file, wrapping I/O exceptions so it can be used in streams.
+   *
+   * @param file     File to fingerprint.
+   * @param previous Previous fingerprint of the file or {@code null}.
+   *
+   * @return Fingerprint of file.
+   */
+  private static FileFingerprint fingerprint(Path file, FileFingerprint previous) {
+    try {
+      return FileFingerprint.of(file, previous);
+    }
+    catch (IOException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  /**
+   * Returns {@code true} if there is a valid previous state and no class files changed.
+   *
+   * @return {@code true} if there is a valid previous state and no class files changed.
+   */
+  public boolean isUpToDate() {
+    return previous != null && changedClasses.isEmpty();
+  }
+
+  /**
+   * Returns {@code true} if there is a valid previous state which stored the components.
+   *
+   * @return {@code true} if there is a valid previous state which stored the components.
+   */
+  private boolean hasPreviousComponents() {
+    return previous != null && previous.getComponents() != null;
+  }
+
+  /**
+   * Returns components of the previous state which do not depend on any changed class.
+   *
+   * @return Components of the previous state which can be reused.
+   */
+  public List<ComponentState> getReusableComponents() {
+    if (!hasPreviousComponents()) {
+      return Collections.emptyList();
+    }
+    return previous.getComponents().stream()
+            .filter(c -> !c.dependsOnAny(affectedClasses))
+            .collect(Collectors.toList());
+  }
+
+  /**
+   * Returns names of the classes that need to be inspected: all classes accepted by the {@link #filter} if there is no
+   * valid previous state (or it only stored fingerprints), else changed classes accepted by the {@link #filter} and
+   * components depending on changed classes (as far as they still exist).
+   *
+   * @return Names of the classes that need to be inspected.
+   */
+  public Stream<String> getClassesToInspect() {
+    if (!hasPreviousComponents()) {
+      return classFiles.keySet().stream().filter(filter::includesClass);
+    }
+    Set<String> classNames = changedClasses.stream().filter(filter::includesClass).collect(Collectors.toSet());
+    previous.getComponents().stream()
+            .filter(c -> c.dependsOnAny(affectedClasses))
+            .map(c -> c.getInfo().getClassName())
+            .forEach(classNames::add);
+    return classNames.stream().filter(classFiles::containsKey).sorted();
+  }
+
+  /**
+   * Returns hash of the names and content hashes of all current class files.
+   *
+   * @return Hash of the current class files.
+   */
+  public String getClassesHash() {
+    StringBuilder builder = new StringBuilder();
+    classFiles.forEach((k, v) -> builder.append(k).append(' ').append(v.getHash()).append('\n'));
+    return Utils.hash(builder.toString());
+  }
+
+  /**
+   * Returns {@link #changedClasses}.
+   *
+   * @return {@link #changedClasses}.
+   */
+  public Set<String> getChangedClasses() {
+    return Collections.unmodifiableSet(changedClasses);
+  }
+
+  /**
+   * Writes the current state to the {@link #stateFile}.
+   *
+   * @param facesLib Faces library model that was generated.
+   *
+   * @throws IOException If any exceptions happen writing.
+   */
+  public void save(FacesLib facesLib) throws IOException {
+    List<ComponentState> components = facesLib.getComponents().stream()
+            .map(ComponentState::of)
+            .collect(Collectors.toList());
+    new BuildState(classPathHash, configHash, classFiles, components).write(stateFile);
+  }
+
+  /**
+   * Writes the current class file fingerprints to the {@link #stateFile}, without components. Used when the outputs
+   * were not generated (like when restored from an output cache), so the next build is {@link #isUpToDate() up to
+   * date} if nothing changed, but inspects all classes if anything changed.
+   *
+   * @throws IOException If any exceptions happen writing.
+   */
+  public void saveFingerprints() throws IOException {
+    new BuildState(classPathHash, configHash, classFiles, null).write(stateFile);
+  }
+
+}
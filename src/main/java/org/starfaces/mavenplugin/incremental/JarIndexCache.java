@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.incremental;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.starfaces.mavenplugin.inspect.ClassInspector;
+import org.starfaces.mavenplugin.model.FacesLib;
+import org.starfaces.mavenplugin.util.Utils;
+
+/**
+ * Cache of the components discovered in dependency jars. For every jar an index file of the resolved components (like
+ * {@link ComponentIndex}) is stored, named after the SHA-256 checksum of the jar and the checksums of the other jars on
+ * the class path (attributes can be inherited from classes in other jars). Class path directories (like the classes of
+ * other reactor modules) are not part of the key, so recompiling them does not invalidate the indexes. So a jar is
+ * only inspected once, and components of an unchanged jar are added without resolving their attributes. The checksums
+ * are kept in a {@link FingerprintStore}, so unchanged jars are not even read to compute their checksum. Files are
+ * written atomically; files that cannot be read are ignored.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class JarIndexCache {
+
+  /**
+   * Index file format version. Increase when the format changes.
+   */
+  private static final int VERSION = 2;
+
+  /**
+   * Name of the file storing the jar fingerprints.
+   */
+  private static final String STATE_FILE = "jars.state";
+
+  /**
+   * Extension of the index files.
+   */
+  private static final String INDEX_EXTENSION = ".idx";
+
+  /**
+   * Directory storing the index files.
+   */
+  private final Path directory;
+
+  /**
+   * Class path the components are resolved against.
+   */
+  private final List<Path> classPath;
+
+  /**
+   * Logs debug messages, like why a file is ignored.
+   */
+  private final Consumer<String> debugLog;
+
+  /**
+   * Hash of the checksums of the jars on the {@link #classPath}, computed on first use.
+   */
+  private String classPathKey;
+
+  /**
+   * Jar fingerprints.
+   */
+  private final FingerprintStore fingerprints;
+
+  /**
+   * Names of the index files read or written since this cache was created.
+   */
+  private final Set<String> usedIndexes = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Number of jars of which the index was read from the cache.
+   */
+  private final AtomicLong hits = new AtomicLong();
+
+  /**
+   * Number of jars which had to be inspected.
+   */
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * Create cache, reading the jar fingerprints of the last build.
+   *
+   * @param directory Sets {@link #directory}.
+   * @param classPath Sets {@link #classPath}.
+   * @param debugLog  Sets {@link #debugLog}.
+   */
+  public JarIndexCache(Path directory, List<Path> classPath, Consumer<String> debugLog) {
+    this.directory = directory;
+    this.classPath = new ArrayList<>(classPath);
+    this.debugLog = debugLog;
+    this.fingerprints = new FingerprintStore(directory.resolve(STATE_FILE), debugLog);
+  }
+
+  /**
+   * Returns {@link #classPathKey} which will be computed if {@code null}.
+   *
+   * @return {@link #classPathKey}.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  private synchronized String getClassPathKey() throws IOException {
+    if (classPathKey == null) {
+      StringBuilder builder = new StringBuilder();
+      for (Path path : classPath) {
+        if (Files.isRegularFile(path)) {
+          builder.append(fingerprints.hash(path)).append('\n');
+        }
+      }
+      classPathKey = Utils.hash(builder.toString());
+    }
+    return classPathKey;
+  }
+
+  /**
+   * Returns the resolved components in a jar. If there is no index for the checksum of the jar and the jars on the
+   * class path, all classes in the jar are inspected and resolved (using a parallel stream) and the index is written.
+   *
+   * @param jar       Jar file.
+   * @param inspector Class inspector able to read the classes in the jar and the classes they extend.
+   *
+   * @return Resolved components in the jar.
+   *
+   * @throws IOException If any exceptions happen reading or writing.
+   */
+  public List<ComponentState> components(Path jar, ClassInspector inspector) throws IOException {
+    String indexName = Utils.hash(fingerprints.hash(jar) + '\n' + getClassPathKey()) + INDEX_EXTENSION;
+    usedIndexes.add(indexName);
+    Path indexFile = directory.resolve(indexName);
+    List<ComponentState> components = readIndex(indexFile);
+    if (components != null) {
+      hits.incrementAndGet();
+      return components;
+    }
+    misses.incrementAndGet();
+    components = inspect(jar, inspector);
+    writeIndex(indexFile, components);
+    return components;
+  }
+
+  /**
+   * Inspects all classes in a jar and resolves the attributes of the components found.
+   *
+   * @param jar       Jar file.
+   * @param inspector Class inspector able to read the classes in the jar and the classes they extend.
+   *
+   * @return Resolved components in the jar, sorted by class name.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  private static List<ComponentState> inspect(Path jar, ClassInspector inspector) throws IOException {
+    FacesLib lib = new FacesLib(inspector, null);
+    lib.addComponents(Utils.jarClassNames(jar).parallelStream()
+            .map(inspector::facesComponent)
+            .filter(Objects::nonNull));
+    return lib.getComponents().stream()
+            .map(ComponentState::of)
+            .sorted(Comparator.comparing(c -> c.getInfo().getClassName()))
+            .collect(Collectors.toList());
+  }
+
+  /**
+   * Reads index file.
+   *
+   * @param indexFile Index file.
+   *
+   * @return Components in the index or {@code null} if there is no (readable) index.
+   */
+  private List<ComponentState> readIndex(Path indexFile) {
+    if (!Files.isRegularFile(indexFile)) {
+      return null;
+    }
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+      if (in.readInt() != VERSION) {
+        return null;
+      }
+      int count = in.readInt();
+      List<ComponentState> components = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        components.add(BuildState.readComponent(in));
+      }
+      return components;
+    }
+    catch (IOException | RuntimeException ex) {
+      debugLog.accept(String.format("Ignoring unreadable jar index %s: %s", indexFile, ex));
+      return null;
+    }
+  }
+
+  /**
+   * Writes index file, creating parent directories if needed.
+   *
+   * @param indexFile  Index file.
+   * @param components Components to write.
+   *
+   * @throws IOException If any exceptions happen writing.
+   */
+  private static void writeIndex(Path indexFile, List<ComponentState> components) throws IOException {
+    BuildState.writeAtomically(indexFile, out -> {
+      out.writeInt(VERSION);
+      out.writeInt(components.size());
+      for (ComponentState component : components) {
+        BuildState.writeComponent(out, component);
+      }
+    });
+  }
+
+  /**
+   * Writes the fingerprints of the jars requested since this cache was created, so unchanged jars do not need to be
+   * hashed again in the next build. Index files that were not used (of jars no longer on the class path, or resolved
+   * against another class path) are deleted.
+   *
+   * @throws IOException If any exceptions happen writing or deleting.
+   */
+  public void save() throws IOException {
+    Files.createDirectories(directory);
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        String name = file.getFileName().toString();
+        if (name.endsWith(INDEX_EXTENSION) && !usedIndexes.contains(name)) {
+          Files.deleteIfExists(file);
+        }
+      }
+    }
+    fingerprints.save();
+  }
+
+  /**
+   * Returns {@link #hits}.
+   *
+   * @return {@link #hits}.
+   */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * Returns {@link #misses}.
+   *
+   * @return {@link #misses}.
+   */
+  public long getMisses() {
+    return misses.get();
+  }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.inspect;
+
+import org.starfaces.annotations.Attribute;
+
+/**
+ * Information read from an {@link Attribute} annotated {@code PropertyKeys} entry.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class AttributeInfo {
+
+  /**
+   * If {@code true} the attribute is required.
+   */
+  private final boolean required;
+
+  /**
+   * Type name of the attribute (as returned by {@link Class#getName()}).
+   */
+  private final String type;
+
+  /**
+   * Description of the attribute.
+   */
+  private final String description;
+
+  /**
+   * Create attribute information.
+   *
+   * @param required    Sets {@link #required}.
+   * @param type        Sets {@link #type}.
+   * @param description Sets {@link #description}.
+   */
+  public AttributeInfo(boolean required, String type, String description) {
+    this.required = required;
+    this.type = type;
+    this.description = description;
+  }
+
+  /**
+   * Create attribute information from annotation.
+   *
+   * @param attribute Attribute annotation.
+   */
+  public AttributeInfo(Attribute attribute) {
+    this(attribute.required(), attribute.type().getName(), attribute.value());
+  }
+
+  /**
+   * Returns {@link #required}.
+   *
+   * @return {@link #required}.
+   */
+  public boolean isRequired() {
+    return required;
+  }
+
+  /**
+   * Returns {@link #type}.
+   *
+   * @return {@link #type}.
+   */
+  public String getType() {
+    return type;
+  }
+
+  /**
+   * Returns {@link #description}.
+   *
+   * @return {@link #description}.
+   */
+  public String getDescription() {
+    return description;
+  }
+
+  /**
+   * @return {@inheritDoc }
+   */
+  @Override
+  public String toString() {
+    return "AttributeInfo{" + "required=" + required + ", type=" + type + '}';
+  }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.inspect;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.faces.component.FacesComponent;
+import org.starfaces.annotations.Attribute;
+import org.starfaces.annotations.Description;
+import org.starfaces.mavenplugin.util.Utils;
+
+/**
+ * Class inspector reading class files directly. Classes are never loaded, only the annotation types themselves are
+ * used to look up default element values.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class BytecodeClassInspector implements ClassInspector {
+
+  /**
+   * Class file repository.
+   */
+  private final ClassFileRepository repository;
+
+  /**
+   * Index of the nested classes in the roots or {@code null} to always look up {@code PropertyKeys} classes.
+   */
+  private final ClassNameIndex index;
+
+  /**
+   * Create inspector.
+   *
+   * @param roots Class path roots (directories and jar files) in lookup order.
+   * @param index Sets {@link #index}.
+   */
+  public BytecodeClassInspector(List<Path> roots, ClassNameIndex index) {
+    this.repository = new ClassFileRepository(roots);
+    this.index = index;
+  }
+
+  /**
+   * @param className {@inheritDoc }
+   *
+   * @return {@inheritDoc }
+   */
+  @Override
+  public ComponentInfo facesComponent(String className) {
+    ClassFile classFile = repository.classFile(className);
+    if (classFile == null) {
+      throw new IllegalStateException("Class not found: " + className);
+    }
+    ClassFileAnnotation component = classFile.getAnnotation(FacesComponent.class.getName());
+    if (component == null) {
+      return null;
+    }
+    ClassFileAnnotation description = classFile.getAnnotation(Description.class.getName());
+    return new ComponentInfo(className,
+                             classFile.getSimpleName(),
+                             (String) value(component, FacesComponent.class, "tagName"),
+                             (String) value(component, FacesComponent.class, "value"),
+                             description == null ? null : (String) value(description, Description.class, "value"));
+  }
+
+  /**
+   * @param className {@inheritDoc }
+   *
+   * @return {@inheritDoc }
+   */
+  @Override
+  public String superclassName(String className) {
+    ClassFile classFile = repository.classFile(className);
+    return classFile == null ? null : classFile.getSuperName();
+  }
+
+  /**
+   * @param className {@inheritDoc }
+   *
+   * @return {@inheritDoc }
+   */
+  @Override
+  public Map<String, AttributeInfo> propertyKeys(String className) {
+    String propertyKeysName = className + Utils.PROPERTY_KEYS_SUFFIX;
+    if (index != null && !index.hasNestedClass(propertyKeysName)) {
+      return null;
+    }
+    ClassFile propertyKeys = repository.classFile(propertyKeysName);
+    if (propertyKeys == null) {
+      return null;
+    }
+    Map<String, AttributeInfo> map = new HashMap<>();
+    for (ClassFileField field : propertyKeys.getFields()) {
+      ClassFileAnnotation attribute = field.getAnnotation(Attribute.class.getName());
+      if (field.isEnumConstant() && attribute != null) {
+        map.put(field.getName(), new AttributeInfo((Boolean) value(attribute, Attribute.class, "required"),
+                                                   (String) value(attribute, Attribute.class, "type"),
+                                                   (String) value(attribute, Attribute.class, "value")));
+      }
+    }
+    return map;
+  }
+
+  /**
+   * Returns element value of annotation, falling back to the default value of the annotation type. Class values are
+   * returned as their {@link Class#getName()} name.
+   *
+   * @param annotation     Annotation read from class file.
+   * @param annotationType Annotation type to read default from.
+   * @param element        Element name.
+   *
+   * @return Element value.
+   */
+  private static Object value(ClassFileAnnotation annotation,
+                              Class<? extends Annotation> annotationType,
+                              String element) {
+    Object value = annotation.getValue(element);
+    if (value != null) {
+      return value;
+    }
+    try {
+      Object defaultValue = annotationType.getMethod(element).getDefaultValue();
+      return defaultValue instanceof Class ? ((Class<?>) defaultValue).getName() : defaultValue;
+    }
+    catch (NoSuchMethodException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  /**
+   * Returns the time the {@link #repository} spent reading and parsing class files.
+   *
+   * @return {@inheritDoc }
+   */
+  @Override
+  public long getLoadingNanos() {
+    return repository.getLoadingNanos();
+  }
+
+  /**
+   * Closes the {@link #repository}.
+   */
+  @Override
+  public void close() {
+    try {
+      repository.close();
+    }
+    catch (IOException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.inspect;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class metadata read directly from a class file, without loading the class.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class ClassFile {
+
+  /**
+   * Fully qualified class name.
+   */
+  private final String name;
+
+  /**
+   * Fully qualified super class name or {@code null} for {@code java.lang.Object}.
+   */
+  private final String superName;
+
+  /**
+   * Runtime visible annotations by annotation type name.
+   */
+  private final Map<String, ClassFileAnnotation> annotations;
+
+  /**
+   * Declared fields.
+   */
+  private final List<ClassFileField> fields;
+
+  /**
+   * Create class file.
+   *
+   * @param name        Sets {@link #name}.
+   * @param superName   Sets {@link #superName}.
+   * @param annotations Sets {@link #annotations}.
+   * @param fields      Sets {@link #fields}.
+   */
+  ClassFile(String name, String superName, Map<String, ClassFileAnnotation> annotations, List<ClassFileField> fields) {
+    this.name = name;
+    this.superName = superName;
+    this.annotations = annotations;
+    this.fields = fields;
+  }
+
+  /**
+   * Returns {@link #name}.
+   *
+   * @return {@link #name}.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns simple class name (the part after the last {@code .} or {@code $}).
+   *
+   * @return Simple class name.
+   */
+  public String getSimpleName() {
+    return name.substring(Math.max(name.lastIndexOf('.'), name.lastIndexOf('$')) + 1);
+  }
+
+  /**
+   * Returns {@link #superName}.
+   *
+   * @return {@link #superName}.
+   */
+  public String getSuperName() {
+    return superName;
+  }
+
+  /**
+   * Returns annotation of the provided type or {@code null} if not present.
+   *
+   * @param type Annotation type name.
+   *
+   * @return Annotation of the provided type or {@code null} if not present.
+   */
+  public ClassFileAnnotation getAnnotation(String type) {
+    return annotations.get(type);
+  }
+
+  /**
+   * Returns {@link #annotations}.
+   *
+   * @return {@link #annotations}.
+   */
+  public Map<String, ClassFileAnnotation> getAnnotations() {
+    return Collections.unmodifiableMap(annotations);
+  }
+
+  /**
+   * Returns {@link #fields}.
+   *
+   * @return {@link #fields}.
+   */
+  public List<ClassFileField> getFields() {
+    return Collections.unmodifiableList(fields);
+  }
+
+  /**
+   * @return {@inheritDoc }
+   */
+  @Override
+  public String toString() {
+    return "ClassFile{" + "name=" + name + ", superName=" + superName + '}';
+  }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.inspect;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Annotation read from a class file. Element values are converted to Java objects: constants to their boxed type,
+ * strings and enumeration constants to {@link String}, classes to their {@link Class#getName()} name, arrays to
+ * {@link java.util.List} and nested annotations to {@link ClassFileAnnotation}. Elements that were not set explicitly
+ * (defaults) are not present.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class ClassFileAnnotation {
+
+  /**
+   * Annotation type name.
+   */
+  private final String type;
+
+  /**
+   * Element values by element name.
+   */
+  private final Map<String, Object> values;
+
+  /**
+   * Create annotation.
+   *
+   * @param type   Sets {@link #type}.
+   * @param values Sets {@link #values}.
+   */
+  ClassFileAnnotation(String type, Map<String, Object> values) {
+    this.type = type;
+    this.values = values;
+  }
+
+  /**
+   * Returns {@link #type}.
+   *
+   * @return {@link #type}.
+   */
+  public String getType() {
+    return type;
+  }
+
+  /**
+   * Returns {@link #values}.
+   *
+   * @return {@link #values}.
+   */
+  public Map<String, Object> getValues() {
+    return Collections.unmodifiableMap(values);
+  }
+
+  /**
+   * Returns explicitly set value of element or {@code null}.
+   *
+   * @param element Element name.
+   *
+   * @return Explicitly set value of element or {@code null}.
+   */
+  public Object getValue(String element) {
+    return values.get(element);
+  }
+
+  /**
+   * @return {@inheritDoc }
+   */
+  @Override
+  public String toString() {
+    return "ClassFileAnnotation{" + "type=" + type + ", values=" + values + '}';
+  }
+
+}
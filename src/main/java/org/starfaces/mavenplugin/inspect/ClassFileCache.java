@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.inspect;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of parsed class files, shared by all inspectors in the JVM so concurrent executions (like modules of a
+ * parallel reactor build) parse classes of common jars (like the Faces API) once. The cache is split in stripes, each
+ * a least recently used map guarded by its own lock, so threads looking up different classes rarely wait for each
+ * other. Class files are parsed outside of the locks; when two threads parse the same class, the first result is
+ * kept. Parsed class files are immutable, so they can be shared between threads.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class ClassFileCache {
+
+  /**
+   * Cache shared by all {@link ClassFileRepository repositories}.
+   */
+  public static final ClassFileCache SHARED = new ClassFileCache(32, 2048);
+
+  /**
+   * Stripes, each holding the entries of which the key hash maps to it.
+   */
+  private final List<Map<String, Optional<ClassFile>>> stripes;
+
+  /**
+   * Number of lookups that found a cached class file.
+   */
+  private final AtomicLong hits = new AtomicLong();
+
+  /**
+   * Number of lookups that had to parse the class file.
+   */
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * Create cache.
+   *
+   * @param stripeCount   Number of stripes.
+   * @param maxPerStripe  Maximum number of entries per stripe.
+   */
+  public ClassFileCache(int stripeCount, int maxPerStripe) {
+    stripes = new ArrayList<>(stripeCount);
+    for (int i = 0; i < stripeCount; i++) {
+      stripes.add(new LinkedHashMap<String, Optional<ClassFile>>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Optional<ClassFile>> eldest) {
+          return size() > maxPerStripe;
+        }
+
+      });
+    }
+  }
+
+  /**
+   * Returns cached class file, or parses and caches it if not cached.
+   *
+   * @param key    Key identifying the class file, including the identity of the file it is read from.
+   * @param loader Parses the class file, returns empty if it does not exist.
+   *
+   * @return Parsed class file or empty if it does not exist.
+   */
+  public Optional<ClassFile> get(String key, Supplier<Optional<ClassFile>> loader) {
+    Map<String, Optional<ClassFile>> stripe = stripes.get(Math.floorMod(key.hashCode(), stripes.size()));
+    synchronized (stripe) {
+      Optional<ClassFile> cached = stripe.get(key);
+      if (cached != null) {
+        hits.incrementAndGet();
+        return cached;
+      }
+    }
+    misses.incrementAndGet();
+    Optional<ClassFile> loaded = loader.get();
+    synchronized (stripe) {
+      Optional<ClassFile> existing = stripe.putIfAbsent(key, loaded);
+      return existing == null ? loaded : existing;
+    }
+  }
+
+  /**
+   * Removes all entries.
+   */
+  public void clear() {
+    for (Map<String, Optional<ClassFile>> stripe : stripes) {
+      synchronized (stripe) {
+        stripe.clear();
+      }
+    }
+  }
+
+  /**
+   * Returns {@link #hits}.
+   *
+   * @return {@link #hits}.
+   */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * Returns {@link #misses}.
+   *
+   * @return {@link #misses}.
+   */
+  public long getMisses() {
+    return misses.get();
+  }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.inspect;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Field read from a class file.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class ClassFileField {
+
+  /**
+   * Access flag marking enumeration constants.
+   */
+  private static final int ACC_ENUM = 0x4000;
+
+  /**
+   * Field name.
+   */
+  private final String name;
+
+  /**
+   * Access flags.
+   */
+  private final int access;
+
+  /**
+   * Runtime visible annotations by annotation type name.
+   */
+  private final Map<String, ClassFileAnnotation> annotations;
+
+  /**
+   * Create field.
+   *
+   * @param name        Sets {@link #name}.
+   * @param access      Sets {@link #access}.
+   * @param annotations Sets {@link #annotations}.
+   */
+  ClassFileField(String name, int access, Map<String, ClassFileAnnotation> annotations) {
+    this.name = name;
+    this.access = access;
+    this.annotations = annotations;
+  }
+
+  /**
+   * Returns {@link #name}.
+   *
+   * @return {@link #name}.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns {@code true} if this field is an enumeration constant.
+   *
+   * @return {@code true} if this field is an enumeration constant.
+   */
+  public boolean isEnumConstant() {
+    return (access & ACC_ENUM) != 0;
+  }
+
+  /**
+   * Returns annotation of the provided type or {@code null} if not present.
+   *
+   * @param type Annotation type name.
+   *
+   * @return Annotation of the provided type or {@code null} if not present.
+   */
+  public ClassFileAnnotation getAnnotation(String type) {
+    return annotations.get(type);
+  }
+
+  /**
+   * Returns {@link #annotations}.
+   *
+   * @return {@link #annotations}.
+   */
+  public Map<String, ClassFileAnnotation> getAnnotations() {
+    return Collections.unmodifiableMap(annotations);
+  }
+
+  /**
+   * @return {@inheritDoc }
+   */
+  @Override
+  public String toString() {
+    return "ClassFileField{" + "name=" + name + ", annotations=" + annotations.keySet() + '}';
+  }
+
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.inspect;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal class file parser. Only reads what is needed to build the faces library model: class name, super class
+ * name, runtime visible annotations of the class and its fields. Method bodies and other attributes are skipped.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public final class ClassFileReader {
+
+  /**
+   * Class file magic number.
+   */
+  private static final int MAGIC = 0xCAFEBABE;
+
+  /**
+   * Name of the attribute holding runtime visible annotations.
+   */
+  private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+  /**
+   * Class file input.
+   */
+  private final DataInputStream in;
+
+  /**
+   * Constant pool values (UTF-8 strings and numeric constants).
+   */
+  private Object[] constants;
+
+  /**
+   * Constant pool references (for class, string and other single index entries).
+   */
+  private int[] references;
+
+  /**
+   * Create reader.
+   *
+   * @param bytes Class file bytes.
+   */
+  private ClassFileReader(byte[] bytes) {
+    this.in = new DataInputStream(new ByteArrayInputStream(bytes));
+  }
+
+  /**
+   * Reads class file.
+   *
+   * @param bytes Class file bytes.
+   *
+   * @return Class file metadata.
+   *
+   * @throws IOException If the bytes are not a valid class file.
+   */
+  public static ClassFile read(byte[] bytes) throws IOException {
+    return new ClassFileReader(bytes).readClassFile();
+  }
+
+  /**
+   * Returns type name (as returned by {@link Class#getName()}) for field descriptor.
+   *
+   * @param descriptor Field descriptor, like {@code Ljava/lang/String;} or {@code I}.
+   *
+   * @return Type name for field descriptor.
+   */
+  public static String typeName(String descriptor) {
+    switch (descriptor.charAt(0)) {
+      case 'B':
+        return "byte";
+      case 'C':
+        return "char";
+      case 'D':
+        return "double";
+      case 'F':
+        return "float";
+      case 'I':
+        return "int";
+      case 'J':
+        return "long";
+      case 'S':
+        return "short";
+      case 'Z':
+        return "boolean";
+      case 'V':
+        return "void";
+      case 'L':
+        return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+      case '[':
+        return descriptor.replace('/', '.');
+      default:
+        throw new IllegalArgumentException("Invalid descriptor: " + descriptor);
+    }
+  }
+
+  /**
+   * Reads the complete class file.
+   *
+   * @return Class file metadata.
+   *
+   * @throws IOException If the input is not a valid class file.
+   */
+  private ClassFile readClassFile() throws IOException {
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not a class file");
+    }
+    in.skipBytes(4); // minor and major version
+    readConstantPool();
+    in.skipBytes(2); // access flags
+    String name = className(in.readUnsignedShort());
+    int superIndex = in.readUnsignedShort();
+    String superName = superIndex == 0 ? null : className(superIndex);
+    in.skipBytes(2 * in.readUnsignedShort()); // interfaces
+    List<ClassFileField> fields = readFields();
+    skipMembers(); // methods
+    Map<String, ClassFileAnnotation> annotations = readAttributes();
+    return new ClassFile(name, superName, annotations, fields);
+  }
+
+  /**
+   * Reads the constant pool into {@link #constants} and {@link #references}.
+   *
+   * @throws IOException If the constant pool contains an unknown tag.
+   */
+  private void readConstantPool() throws IOException {
+    int count = in.readUnsignedShort();
+    constants = new Object[count];
+    references = new int[count];
+    for (int i = 1; i < count; i++) {
+      int tag = in.readUnsignedByte();
+      switch (tag) {
+        case 1: // Utf8
+          constants[i] = in.readUTF();
+          break;
+        case 3: // Integer
+          constants[i] = in.readInt();
+          break;
+        case 4: // Float
+          constants[i] = in.readFloat();
+          break;
+        case 5: // Long
+          constants[i++] = in.readLong();
+          break;
+        case 6: // Double
+          constants[i++] = in.readDouble();
+          break;
+        case 7: // Class
+        case 8: // String
+        case 16: // MethodType
+        case 19: // Module
+        case 20: // Package
+          references[i] = in.readUnsignedShort();
+          break;
+        case 15: // MethodHandle
+          in.skipBytes(3);
+          break;
+        case 9: // Fieldref
+        case 10: // Methodref
+        case 11: // InterfaceMethodref
+        case 12: // NameAndType
+        case 17: // Dynamic
+        case 18: // InvokeDynamic
+          in.skipBytes(4);
+          break;
+        default:
+          throw new IOException("Unknown constant pool tag: " + tag);
+      }
+    }
+  }
+
+  /**
+   * Reads fields.
+   *
+   * @return Fields.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  private List<ClassFileField> readFields() throws IOException {
+    int count = in.readUnsignedShort();
+    List<ClassFileField> fields = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int access = in.readUnsignedShort();
+      String name = utf8(in.readUnsignedShort());
+      in.skipBytes(2); // descriptor
+      fields.add(new ClassFileField(name, access, readAttributes()));
+    }
+    return fields;
+  }
+
+  /**
+   * Skips fields or methods.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  private void skipMembers() throws IOException {
+    int count = in.readUnsignedShort();
+    for (int i = 0; i < count; i++) {
+      in.skipBytes(6); // access flags, name and descriptor
+      skipAttributes();
+    }
+  }
+
+  /**
+   * Skips attributes.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  private void skipAttributes() throws IOException {
+    int count = in.readUnsignedShort();
+    for (int i = 0; i < count; i++) {
+      in.skipBytes(2);
+      in.skipBytes(in.readInt());
+    }
+  }
+
+  /**
+   * Reads attributes, returning the runtime visible annotations and skipping all others.
+   *
+   * @return Runtime visible annotations by annotation type name.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  private Map<String, ClassFileAnnotation> readAttributes() throws IOException {
+    Map<String, ClassFileAnnotation> annotations = Collections.emptyMap();
+    int count = in.readUnsignedShort();
+    for (int i = 0; i < count; i++) {
+      String name = utf8(in.readUnsignedShort());
+      int length = in.readInt();
+      if (RUNTIME_VISIBLE_ANNOTATIONS.equals(name)) {
+        annotations = readAnnotations();
+      }
+      else {
+        in.skipBytes(length);
+      }
+    }
+    return annotations;
+  }
+
+  /**
+   * Reads annotations.
+   *
+   * @return Annotations by annotation type name.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  private Map<String, ClassFileAnnotation> readAnnotations() throws IOException {
+    int count = in.readUnsignedShort();
+    Map<String, ClassFileAnnotation> annotations = new HashMap<>();
+    for (int i = 0; i < count; i++) {
+      ClassFileAnnotation annotation = readAnnotation();
+      annotations.put(annotation.getType(), annotation);
+    }
+    return annotations;
+  }
+
+  /**
+   * Reads annotation.
+   *
+   * @return Annotation.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  private ClassFileAnnotation readAnnotation() throws IOException {
+    String type = typeName(utf8(in.readUnsignedShort()));
+    int count = in.readUnsignedShort();
+    Map<String, Object> values = new HashMap<>();
+    for (int i = 0; i < count; i++) {
+      String name = utf8(in.readUnsignedShort());
+      values.put(name, readElementValue());
+    }
+    return new ClassFileAnnotation(type, values);
+  }
+
+  /**
+   * Reads annotation element value.
+   *
+   * @return Element value.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  private Object readElementValue() throws IOException {
+    int tag = in.readUnsignedByte();
+    switch (tag) {
+      case 'B':
+        return (byte) (int) (Integer) constants[in.readUnsignedShort()];
+      case 'C':
+        return (char) (int) (Integer) constants[in.readUnsignedShort()];
+      case 'S':
+        return (short) (int) (Integer) constants[in.readUnsignedShort()];
+      case 'Z':
+        return (Integer) constants[in.readUnsignedShort()] != 0;
+      case 'D':
+      case 'F':
+      case 'I':
+      case 'J':
+      case 's':
+        return constants[in.readUnsignedShort()];
+      case 'e':
+        in.skipBytes(2); // enumeration type
+        return utf8(in.readUnsignedShort());
+      case 'c':
+        return typeName(utf8(in.readUnsignedShort()));
+      case '@':
+        return readAnnotation();
+      case '[':
+        int count = in.readUnsignedShort();
+        List<Object> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+          values.add(readElementValue());
+        }
+        return values;
+      default:
+        throw new IOException("Unknown element value tag: " + tag);
+    }
+  }
+
+  /**
+   * Returns UTF-8 constant.
+   *
+   * @param index Constant pool index.
+   *
+   * @return UTF-8 constant.
+   */
+  private String utf8(int index) {
+    return (String) constants[index];
+  }
+
+  /**
+   * Returns class name (using dots) of class constant.
+   *
+   * @param index Constant pool index of the class constant.
+   *
+   * @return Class name.
+   */
+  private String className(int index) {
+    return utf8(references[index]).replace('/', '.');
+  }
+
+}
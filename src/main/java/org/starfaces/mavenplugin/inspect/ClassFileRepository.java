@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.inspect;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Looks up and parses class files from class path roots (directories and jar files) without loading classes. Parsed
+ * class files, and classes that could not be found, are cached. Class files read from jars are also cached in the
+ * {@link ClassFileCache#SHARED shared cache}, so other repositories (like the ones of other modules in a parallel
+ * reactor build) do not have to parse them again.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class ClassFileRepository implements Closeable {
+
+  /**
+   * Class path roots in lookup order.
+   */
+  private final List<Path> roots;
+
+  /**
+   * Opened jar files by root.
+   */
+  private final Map<Path, JarFile> jarFiles = new ConcurrentHashMap<>();
+
+  /**
+   * Keys identifying the contents of opened jar files (path, size and modification time) by root.
+   */
+  private final Map<Path, String> jarKeys = new ConcurrentHashMap<>();
+
+  /**
+   * Parsed class files by class name.
+   */
+  private final Map<String, Optional<ClassFile>> classFiles = new ConcurrentHashMap<>();
+
+  /**
+   * Nanoseconds spent reading and parsing class files, summed over all threads.
+   */
+  private final LongAdder loadingNanos = new LongAdder();
+
+  /**
+   * Create repository.
+   *
+   * @param roots Class path roots in lookup order. Roots that do not exist are ignored.
+   */
+  public ClassFileRepository(List<Path> roots) {
+    this.roots = new ArrayList<>(roots);
+  }
+
+  /**
+   * Returns parsed class file or {@code null} if the class cannot be found in any of the roots.
+   *
+   * @param className Fully qualified class name.
+   *
+   * @return Parsed class file or {@code null}.
+   */
+  public ClassFile classFile(String className) {
+    return classFiles.computeIfAbsent(className, this::readClassFile).orElse(null);
+  }
+
+  /**
+   * Reads and parses class file from the first root containing it.
+   *
+   * @param className Fully qualified class name.
+   *
+   * @return Parsed class file or empty if not found.
+   */
+  private Optional<ClassFile> readClassFile(String className) {
+    long start = System.nanoTime();
+    String entryName = className.replace('.', '/') + ".class";
+    try {
+      for (Path root : roots) {
+        if (Files.isDirectory(root)) {
+          Path file = root.resolve(entryName);
+          if (Files.isRegularFile(file)) {
+            return Optional.of(ClassFileReader.read(Files.readAllBytes(file)));
+          }
+        }
+        else if (Files.isRegularFile(root)) {
+          Optional<ClassFile> classFile = ClassFileCache.SHARED.get(jarKey(root) + '!' + entryName,
+                                                                    () -> readJarEntry(root, entryName));
+          if (classFile.isPresent()) {
+            return classFile;
+          }
+        }
+      }
+      return Optional.empty();
+    }
+    catch (IOException ex) {
+      throw new IllegalStateException("Could not read " + entryName, ex);
+    }
+    finally {
+      loadingNanos.add(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Returns {@link #loadingNanos}.
+   *
+   * @return {@link #loadingNanos}.
+   */
+  public long getLoadingNanos() {
+    return loadingNanos.sum();
+  }
+
+  /**
+   * Reads and parses class file from jar file.
+   *
+   * @param root      Jar file.
+   * @param entryName Entry name using {@code /} as separator.
+   *
+   * @return Parsed class file or empty if the jar does not contain the entry.
+   */
+  private Optional<ClassFile> readJarEntry(Path root, String entryName) {
+    JarFile jarFile = jarFile(root);
+    JarEntry entry = jarFile.getJarEntry(entryName);
+    if (entry == null) {
+      return Optional.empty();
+    }
+    try (InputStream stream = jarFile.getInputStream(entry)) {
+      return Optional.of(ClassFileReader.read(readAll(stream)));
+    }
+    catch (IOException ex) {
+      throw new IllegalStateException("Could not read " + entryName + " from " + root, ex);
+    }
+  }
+
+  /**
+   * Returns key identifying the contents of a jar file in the {@link ClassFileCache#SHARED shared cache}. The size
+   * and modification time are part of the key, so a jar that is rebuilt (like a reactor module's jar) is read again.
+   *
+   * @param root Jar file path.
+   *
+   * @return Key identifying the jar file contents.
+   */
+  private String jarKey(Path root) {
+    return jarKeys.computeIfAbsent(root, r -> {
+      try {
+        return r.toAbsolutePath() + ":" + Files.size(r) + ":" + Files.getLastModifiedTime(r).toMillis();
+      }
+      catch (IOException ex) {
+        throw new IllegalStateException("Could not read " + r, ex);
+      }
+    });
+  }
+
+  /**
+   * Returns opened jar file for root.
+   *
+   * @param root Jar file path.
+   *
+   * @return Opened jar file.
+   */
+  private JarFile jarFile(Path root) {
+    return jarFiles.computeIfAbsent(root, r -> {
+      try {
+        return new JarFile(r.toFile());
+      }
+      catch (IOException ex) {
+        throw new IllegalStateException("Could not open " + r, ex);
+      }
+    });
+  }
+
+  /**
+   * Reads all bytes from stream.
+   *
+   * @param stream Stream to read.
+   *
+   * @return Bytes read.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  private static byte[] readAll(InputStream stream) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    int read;
+    while ((read = stream.read(buffer)) != -1) {
+      out.write(buffer, 0, read);
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Closes all opened jar files.
+   *
+   * @throws IOException If closing a jar file fails.
+   */
+  @Override
+  public void close() throws IOException {
+    for (JarFile jarFile : jarFiles.values()) {
+      jarFile.close();
+    }
+    jarFiles.clear();
+  }
+
+}
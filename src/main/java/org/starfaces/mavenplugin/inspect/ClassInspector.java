@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.inspect;
+
+import java.io.Closeable;
+import java.util.Map;
+import javax.faces.component.FacesComponent;
+
+/**
+ * Provides the class metadata needed to build the faces library model.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public interface ClassInspector extends Closeable {
+
+  /**
+   * Returns component information if the class is annotated with {@link FacesComponent}, else {@code null}.
+   *
+   * @param className Name of the class to inspect.
+   *
+   * @return Component information or {@code null} if the class is not a faces component.
+   */
+  ComponentInfo facesComponent(String className);
+
+  /**
+   * Returns the name of the super class or {@code null} if there is none or it cannot be found.
+   *
+   * @param className Name of the class to inspect.
+   *
+   * @return Name of the super class or {@code null}.
+   */
+  String superclassName(String className);
+
+  /**
+   * Returns map of property name and attribute information read from the {@code PropertyKeys} enumeration of the
+   * class, or {@code null} if the class has no such enumeration.
+   *
+   * @param className Name of the class to inspect.
+   *
+   * @return Map of property name and attribute information or {@code null}.
+   */
+  Map<String, AttributeInfo> propertyKeys(String className);
+
+  /**
+   * Returns the time spent loading classes (reading and parsing class files, or loading classes using a class
+   * loader) in nanoseconds, summed over all threads. Returns {@code 0} by default.
+   *
+   * @return Time spent loading classes in nanoseconds.
+   */
+  default long getLoadingNanos() {
+    return 0;
+  }
+
+  /**
+   * Releases resources held by this inspector. Does nothing by default.
+   */
+  @Override
+  default void close() {
+  }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.inspect;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.starfaces.mavenplugin.util.Utils;
+
+/**
+ * Index of the names of nested classes (class names containing {@code $}) that exist in a set of class path roots. It
+ * is used to find out whether a class has a nested class (like {@code PropertyKeys}) using a hash lookup, instead of
+ * searching the class path (and catching {@link ClassNotFoundException}).
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class ClassNameIndex {
+
+  /**
+   * Names of the nested classes.
+   */
+  private final Set<String> nestedClassNames;
+
+  /**
+   * Create index.
+   *
+   * @param nestedClassNames Sets {@link #nestedClassNames}.
+   */
+  private ClassNameIndex(Set<String> nestedClassNames) {
+    this.nestedClassNames = nestedClassNames;
+  }
+
+  /**
+   * Creates index of the nested classes in the provided roots. Directories are walked, jar files are indexed by reading
+   * their central directory. Roots are indexed using a parallel stream.
+   *
+   * @param roots Class path roots (directories and jar files).
+   *
+   * @return Index of the nested classes.
+   */
+  public static ClassNameIndex of(List<Path> roots) {
+    Set<String> names = ConcurrentHashMap.newKeySet();
+    roots.parallelStream().forEach(root -> {
+      try {
+        if (Files.isDirectory(root)) {
+          Utils.classPaths(root, Integer.MAX_VALUE)
+                  .map(p -> Utils.className(root, p))
+                  .filter(ClassNameIndex::isNested)
+                  .forEach(names::add);
+        }
+        else if (Files.isRegularFile(root)) {
+          Utils.jarClassNames(root).stream()
+                  .filter(ClassNameIndex::isNested)
+                  .forEach(names::add);
+        }
+      }
+      catch (IOException ex) {
+        throw new IllegalStateException("Could not index " + root, ex);
+      }
+    });
+    return new ClassNameIndex(names);
+  }
+
+  /**
+   * Returns {@code true} if the class name is the name of a nested class.
+   *
+   * @param className Class name.
+   *
+   * @return {@code true} if the class name is the name of a nested class.
+   */
+  private static boolean isNested(String className) {
+    return className.indexOf('$') != -1;
+  }
+
+  /**
+   * Returns {@code true} if the nested class exists in the indexed roots.
+   *
+   * @param nestedClassName Name of the nested class, like {@code com.example.Component$PropertyKeys}.
+   *
+   * @return {@code true} if the nested class exists in the indexed roots.
+   */
+  public boolean hasNestedClass(String nestedClassName) {
+    return nestedClassNames.contains(nestedClassName);
+  }
+
+  /**
+   * Returns the names of the indexed nested classes.
+   *
+   * @return Names of the indexed nested classes.
+   */
+  public Set<String> getNestedClassNames() {
+    return Collections.unmodifiableSet(nestedClassNames);
+  }
+
+  /**
+   * @return {@inheritDoc }
+   */
+  @Override
+  public String toString() {
+    return "ClassNameIndex{" + "size=" + nestedClassNames.size() + '}';
+  }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.inspect;
+
+/**
+ * Information read from a class annotated with {@code FacesComponent}.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class ComponentInfo {
+
+  /**
+   * Fully qualified class name.
+   */
+  private final String className;
+
+  /**
+   * Simple class name.
+   */
+  private final String simpleName;
+
+  /**
+   * Tag name from the annotation (can be empty).
+   */
+  private final String tagName;
+
+  /**
+   * Component type from the annotation.
+   */
+  private final String type;
+
+  /**
+   * Description of the component or {@code null}.
+   */
+  private final String description;
+
+  /**
+   * Create component information.
+   *
+   * @param className   Sets {@link #className}.
+   * @param simpleName  Sets {@link #simpleName}.
+   * @param tagName     Sets {@link #tagName}.
+   * @param type        Sets {@link #type}.
+   * @param description Sets {@link #description}.
+   */
+  public ComponentInfo(String className, String simpleName, String tagName, String type, String description) {
+    this.className = className;
+    this.simpleName = simpleName;
+    this.tagName = tagName;
+    this.type = type;
+    this.description = description;
+  }
+
+  /**
+   * Returns {@link #className}.
+   *
+   * @return {@link #className}.
+   */
+  public String getClassName() {
+    return className;
+  }
+
+  /**
+   * Returns {@link #simpleName}.
+   *
+   * @return {@link #simpleName}.
+   */
+  public String getSimpleName() {
+    return simpleName;
+  }
+
+  /**
+   * Returns {@link #tagName}.
+   *
+   * @return {@link #tagName}.
+   */
+  public String getTagName() {
+    return tagName;
+  }
+
+  /**
+   * Returns {@link #type}.
+   *
+   * @return {@link #type}.
+   */
+  public String getType() {
+    return type;
+  }
+
+  /**
+   * Returns {@link #description}.
+   *
+   * @return {@link #description}.
+   */
+  public String getDescription() {
+    return description;
+  }
+
+  /**
+   * @return {@inheritDoc }
+   */
+  @Override
+  public String toString() {
+    return "ComponentInfo{" + "className=" + className + ", tagName=" + tagName + ", type=" + type + '}';
+  }
+
+}
@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.inspect;
+
+/**
+ * How components are discovered.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public enum DiscoveryMode {
+
+  /**
+   * Read class files directly using {@link BytecodeClassInspector}. No classes are loaded.
+   */
+  BYTECODE,
+
+  /**
+   * Load classes and use reflection using {@link ReflectiveClassInspector}.
+   */
+  REFLECTION
+
+}
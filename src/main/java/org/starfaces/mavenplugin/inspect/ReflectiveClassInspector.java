@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.inspect;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.faces.component.FacesComponent;
+import org.starfaces.annotations.Attribute;
+import org.starfaces.annotations.Description;
+import org.starfaces.mavenplugin.util.Utils;
+
+/**
+ * Class inspector loading classes using a class loader and reading them using reflection. The class loader is closed
+ * when the inspector is closed.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class ReflectiveClassInspector implements ClassInspector {
+
+  /**
+   * Class loader.
+   */
+  private final ClassLoader classLoader;
+
+  /**
+   * Index of the nested classes available to the {@link #classLoader} or {@code null} to always try to load
+   * {@code PropertyKeys} classes.
+   */
+  private final ClassNameIndex index;
+
+  /**
+   * Nanoseconds spent loading classes, summed over all threads.
+   */
+  private final LongAdder loadingNanos = new LongAdder();
+
+  /**
+   * Create inspector.
+   *
+   * @param classLoader Sets {@link #classLoader}.
+   * @param index       Sets {@link #index}.
+   */
+  public ReflectiveClassInspector(ClassLoader classLoader, ClassNameIndex index) {
+    this.classLoader = classLoader;
+    this.index = index;
+  }
+
+  /**
+   * @param className {@inheritDoc }
+   *
+   * @return {@inheritDoc }
+   */
+  @Override
+  public ComponentInfo facesComponent(String className) {
+    Class<?> clss = loadClass(className);
+    FacesComponent component = clss.getAnnotation(FacesComponent.class);
+    if (component == null) {
+      return null;
+    }
+    Description description = clss.getAnnotation(Description.class);
+    return new ComponentInfo(className,
+                             clss.getSimpleName(),
+                             component.tagName(),
+                             component.value(),
+                             description == null ? null : description.value());
+  }
+
+  /**
+   * @param className {@inheritDoc }
+   *
+   * @return {@inheritDoc }
+   */
+  @Override
+  public String superclassName(String className) {
+    Class<?> superclass = loadClass(className).getSuperclass();
+    return superclass == null ? null : superclass.getName();
+  }
+
+  /**
+   * @param className {@inheritDoc }
+   *
+   * @return {@inheritDoc }
+   */
+  @Override
+  public Map<String, AttributeInfo> propertyKeys(String className) {
+    if (index != null && !index.hasNestedClass(className + Utils.PROPERTY_KEYS_SUFFIX)) {
+      return null;
+    }
+    Map<String, Attribute> propertyKeys = Utils.propertyKeys(classLoader, loadClass(className));
+    if (propertyKeys == null) {
+      return null;
+    }
+    Map<String, AttributeInfo> map = new HashMap<>();
+    propertyKeys.forEach((k, v) -> map.put(k, new AttributeInfo(v)));
+    return map;
+  }
+
+  /**
+   * Returns {@link #classLoader}.
+   *
+   * @return {@link #classLoader}.
+   */
+  public ClassLoader getClassLoader() {
+    return classLoader;
+  }
+
+  /**
+   * Returns {@link #loadingNanos}.
+   *
+   * @return {@link #loadingNanos}.
+   */
+  @Override
+  public long getLoadingNanos() {
+    return loadingNanos.sum();
+  }
+
+  /**
+   * Closes the {@link #classLoader} if it is closeable (like a {@link java.net.URLClassLoader}), releasing the jar
+   * files it opened. Classes can no longer be loaded after closing.
+   */
+  @Override
+  public void close() {
+    if (classLoader instanceof Closeable) {
+      try {
+        ((Closeable) classLoader).close();
+      }
+      catch (IOException ex) {
+        throw new IllegalStateException(ex);
+      }
+    }
+  }
+
+  /**
+   * Loads class using {@link #classLoader}.
+   *
+   * @param className Class name to load.
+   *
+   * @return Loaded class.
+   */
+  private Class<?> loadClass(String className) {
+    long start = System.nanoTime();
+    try {
+      return classLoader.loadClass(className);
+    }
+    catch (ClassNotFoundException ex) {
+      throw new IllegalStateException(ex);
+    }
+    finally {
+      loadingNanos.add(System.nanoTime() - start);
+    }
+  }
+
+}
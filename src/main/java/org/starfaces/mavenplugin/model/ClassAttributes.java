@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Attributes of a class resolved over its complete class hierarchy. Attributes inherited from the super class are the
+ * instances of the super class, so they are shared by all classes extending it.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+class ClassAttributes {
+
+  /**
+   * Names of the classes attributes were read from, starting with the class itself.
+   */
+  private final List<String> hierarchy = new ArrayList<>();
+
+  /**
+   * Attributes by name. Attributes of a class override the ones of its super classes.
+   */
+  private final Map<String, CompAttribute> attributes = new HashMap<>();
+
+  /**
+   * Attributes sorted by name, shared by all components of the class.
+   */
+  private final List<CompAttribute> sortedAttributes;
+
+  /**
+   * Create resolved attributes.
+   *
+   * @param className    Class name.
+   * @param parent       Resolved attributes of the super class or {@code null}.
+   * @param propertyKeys Attributes declared by the class itself or {@code null}.
+   */
+  ClassAttributes(String className, ClassAttributes parent, Map<String, CompAttribute> propertyKeys) {
+    hierarchy.add(className);
+    if (parent != null) {
+      hierarchy.addAll(parent.hierarchy);
+      attributes.putAll(parent.attributes);
+    }
+    if (propertyKeys != null) {
+      attributes.putAll(propertyKeys);
+    }
+    List<CompAttribute> sorted = new ArrayList<>(attributes.values());
+    Collections.sort(sorted);
+    sortedAttributes = Collections.unmodifiableList(sorted);
+  }
+
+  /**
+   * Returns {@link #hierarchy}.
+   *
+   * @return {@link #hierarchy}.
+   */
+  List<String> getHierarchy() {
+    return Collections.unmodifiableList(hierarchy);
+  }
+
+  /**
+   * Returns {@link #sortedAttributes}.
+   *
+   * @return {@link #sortedAttributes}.
+   */
+  List<CompAttribute> getAttributes() {
+    return sortedAttributes;
+  }
+
+}
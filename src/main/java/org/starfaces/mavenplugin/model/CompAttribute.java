@@ -4,19 +4,17 @@
 package org.starfaces.mavenplugin.model;
 
 import java.util.Objects;
-import org.starfaces.annotations.Attribute;
+import org.starfaces.mavenplugin.inspect.AttributeInfo;
 
 /**
+ * Component attribute. Attributes are immutable flyweights: an attribute declared by a super class is created once and
+ * shared by all components extending it, so it does not reference a component. Names, types and descriptions are
+ * interned.
  *
  * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
  */
 public class CompAttribute implements Comparable<CompAttribute> {
 
-  /**
-   * LibComponent of this attribute.
-   */
-  private final LibComponent component;
-
   /**
    * Name of the attribute.
    */
@@ -28,9 +26,9 @@ public class CompAttribute implements Comparable<CompAttribute> {
   private final boolean required;
 
   /**
-   * Type of the attribute.
+   * Type name of the attribute.
    */
-  private final Class<?> type;
+  private final String type;
 
   /**
    * Description of the attribute.
@@ -40,25 +38,25 @@ public class CompAttribute implements Comparable<CompAttribute> {
   /**
    * Create attribute.
    *
-   * @param component LibComponent of this attribute.
    * @param name      Name of the attribute.
-   * @param attribute Attribute annotation.
+   * @param attribute Attribute information.
    */
-  CompAttribute(LibComponent component, String name, Attribute attribute) {
-    this.component = component;
-    this.name = name;
-    this.required = attribute.required();
-    this.type = attribute.type();
-    this.description = attribute.value();
+  CompAttribute(String name, AttributeInfo attribute) {
+    this.name = intern(name);
+    this.required = attribute.isRequired();
+    this.type = intern(attribute.getType());
+    this.description = intern(attribute.getDescription());
   }
 
   /**
-   * Returns {@link #component}.
+   * Returns interned string.
+   *
+   * @param string String to intern, may be {@code null}.
    *
-   * @return {@link #component}.
+   * @return Interned string or {@code null}.
    */
-  public LibComponent getComponent() {
-    return component;
+  private static String intern(String string) {
+    return string == null ? null : string.intern();
   }
 
   /**
@@ -84,7 +82,7 @@ public class CompAttribute implements Comparable<CompAttribute> {
    *
    * @return {@link #type}.
    */
-  public Class<?> getType() {
+  public String getType() {
     return type;
   }
 
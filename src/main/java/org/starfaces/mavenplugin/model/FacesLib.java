@@ -4,10 +4,26 @@
 package org.starfaces.mavenplugin.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import javax.faces.component.UIComponent;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.starfaces.mavenplugin.inspect.AttributeInfo;
+import org.starfaces.mavenplugin.inspect.ClassInspector;
+import org.starfaces.mavenplugin.inspect.ComponentInfo;
 
 /**
  *
@@ -16,9 +32,9 @@ import org.codehaus.plexus.util.xml.Xpp3Dom;
 public class FacesLib {
 
   /**
-   * Class loader.
+   * Class inspector, {@code null} once the library is {@link #detach() detached}.
    */
-  private final ClassLoader classLoader;
+  private volatile ClassInspector inspector;
 
   /**
    * Plugin configuration.
@@ -31,39 +47,256 @@ public class FacesLib {
   private final List<LibComponent> components = new ArrayList<>();
 
   /**
-   * Constructs with class loader and plugin configuration.
+   * Attributes resolved per class during the build of this library, so every class in a hierarchy is inspected once.
+   */
+  private final Map<String, ClassAttributes> resolvedClasses = new ConcurrentHashMap<>();
+
+  /**
+   * Attributes created during the build of this library by their values (name, required, type and description), so
+   * equal attributes are shared by all components.
+   */
+  private final Map<List<Object>, CompAttribute> attributePool = new ConcurrentHashMap<>();
+
+  /**
+   * Nanoseconds spent creating (resolving the attributes of) components added by {@link #addComponents}, by class
+   * name.
+   */
+  private final Map<String, Long> resolutionNanos = new ConcurrentHashMap<>();
+
+  /**
+   * Number of times resolved class attributes were taken from {@link #resolvedClasses}.
+   */
+  private final AtomicLong attributeCacheHits = new AtomicLong();
+
+  /**
+   * Number of times class attributes had to be resolved using the {@link #inspector}.
+   */
+  private final AtomicLong attributeCacheMisses = new AtomicLong();
+
+  /**
+   * Number of attributes of the components created (resolved) by {@link #addComponents}.
+   */
+  private final AtomicLong attributesResolved = new AtomicLong();
+
+  /**
+   * Constructs with class inspector and plugin configuration.
    *
-   * @param classLoader  Sets {@link #classLoader}.
+   * @param inspector    Sets {@link #inspector}.
    * @param pluginConfig Sets {@link #pluginConfig}.
    */
-  public FacesLib(ClassLoader classLoader, Xpp3Dom pluginConfig) {
-    this.classLoader = classLoader;
+  public FacesLib(ClassInspector inspector, Xpp3Dom pluginConfig) {
+    this.inspector = inspector;
     this.pluginConfig = pluginConfig;
   }
 
   /**
    * Add component.
    *
-   * @param clss {@link UIComponent} to add.
+   * @param component Information of the component to add.
+   */
+  public void addComponent(ComponentInfo component) {
+    components.add(new LibComponent(this, component));
+  }
+
+  /**
+   * Add components. Components are created (and their attributes are resolved) using the provided stream, which can
+   * be parallel. Call {@link #sortComponents() } afterwards to get a deterministic order.
+   *
+   * @param stream Information of the components to add.
+   */
+  public void addComponents(Stream<ComponentInfo> stream) {
+    ConcurrentMap<String, LibComponent> added = stream
+            .map(this::newTimedComponent)
+            .collect(Collectors.toConcurrentMap(LibComponent::getClassName, Function.identity()));
+    components.addAll(added.values());
+  }
+
+  /**
+   * Creates component, recording the time spent in {@link #resolutionNanos} and counting its attributes in
+   * {@link #attributesResolved}.
+   *
+   * @param component Component information.
+   *
+   * @return Created component.
+   */
+  private LibComponent newTimedComponent(ComponentInfo component) {
+    long start = System.nanoTime();
+    LibComponent created = new LibComponent(this, component);
+    resolutionNanos.put(component.getClassName(), System.nanoTime() - start);
+    attributesResolved.addAndGet(created.getAttributes().size());
+    return created;
+  }
+
+  /**
+   * Add component with attributes that were resolved before.
+   *
+   * @param component  Information of the component to add.
+   * @param hierarchy  Names of the classes the attributes were read from.
+   * @param attributes Attributes by name.
+   */
+  public void addComponent(ComponentInfo component, List<String> hierarchy, Map<String, AttributeInfo> attributes) {
+    List<CompAttribute> sorted = new ArrayList<>(toAttributes(attributes).values());
+    Collections.sort(sorted);
+    components.add(new LibComponent(this, component, hierarchy, Collections.unmodifiableList(sorted)));
+  }
+
+  /**
+   * Returns attributes taken from (or added to) the {@link #attributePool}.
+   *
+   * @param attributes Attribute information by name, may be {@code null}.
+   *
+   * @return Attributes by name, {@code null} if the provided map is {@code null}.
+   */
+  private Map<String, CompAttribute> toAttributes(Map<String, AttributeInfo> attributes) {
+    if (attributes == null) {
+      return null;
+    }
+    Map<String, CompAttribute> map = new HashMap<>();
+    attributes.forEach((name, info) -> map.put(name, attributePool.computeIfAbsent(
+            Arrays.asList(name, info.isRequired(), info.getType(), info.getDescription()),
+            k -> new CompAttribute(name, info))));
+    return map;
+  }
+
+  /**
+   * Adds the components of another library. Components are equal when they have the same tag name (see
+   * {@link LibComponent#equals(java.lang.Object) }); components of the other library equal to a component of this
+   * library are not added, but returned as duplicates.
+   *
+   * @param other Library to add the components of.
+   *
+   * @return Components of the other library that were not added because their tag name is already used.
+   */
+  public List<LibComponent> merge(FacesLib other) {
+    Set<LibComponent> existing = new HashSet<>(components);
+    List<LibComponent> duplicates = new ArrayList<>();
+    for (LibComponent component : other.components) {
+      if (existing.add(component)) {
+        components.add(component);
+      }
+      else {
+        duplicates.add(component);
+      }
+    }
+    return duplicates;
+  }
+
+  /**
+   * Splits the library into libraries holding the components grouped by key, for example to write a large library to
+   * several taglibs. The returned libraries are detached and share the components (and configuration) of this
+   * library, so {@link LibComponent#getFacesLib()} still returns this library. The order of the components is kept.
+   *
+   * @param key Returns the key of the group a component belongs to.
+   *
+   * @return Libraries by key, sorted by key.
+   */
+  public SortedMap<String, FacesLib> shard(Function<LibComponent, String> key) {
+    SortedMap<String, FacesLib> shards = new TreeMap<>();
+    for (LibComponent component : components) {
+      shards.computeIfAbsent(key.apply(component), k -> new FacesLib(null, pluginConfig)).components.add(component);
+    }
+    return shards;
+  }
+
+  /**
+   * Returns attributes of a class resolved over its class hierarchy. Results are cached in {@link #resolvedClasses}.
+   * Not using {@link ConcurrentHashMap#computeIfAbsent} as resolving is recursive; concurrent threads might resolve
+   * the same class, but only the first result is kept.
+   *
+   * @param className Name of the class to resolve.
+   *
+   * @return Attributes of a class resolved over its class hierarchy.
    */
-  public void addComponent(Class<UIComponent> clss) {
-    components.add(new LibComponent(this, clss));
+  ClassAttributes resolveAttributes(String className) {
+    ClassAttributes resolved = resolvedClasses.get(className);
+    if (resolved != null) {
+      attributeCacheHits.incrementAndGet();
+      return resolved;
+    }
+    attributeCacheMisses.incrementAndGet();
+    ClassInspector inspector = getInspector();
+    if (inspector == null) {
+      throw new IllegalStateException("Library is detached from its class inspector: " + className);
+    }
+    String superclassName = inspector.superclassName(className);
+    ClassAttributes parent = superclassName == null ? null : resolveAttributes(superclassName);
+    resolved = new ClassAttributes(className, parent, toAttributes(inspector.propertyKeys(className)));
+    ClassAttributes existing = resolvedClasses.putIfAbsent(className, resolved);
+    return existing == null ? resolved : existing;
   }
 
   /**
-   * Sorts {@link #components}.
+   * Clears the resolved class attributes, the {@link #attributePool} and the {@link #resolutionNanos}. Call when the
+   * library is built to free memory. The hit and miss counters are kept.
+   */
+  public void clearResolvedAttributes() {
+    resolvedClasses.clear();
+    attributePool.clear();
+    resolutionNanos.clear();
+  }
+
+  /**
+   * Returns {@link #resolutionNanos}.
+   *
+   * @return {@link #resolutionNanos}.
+   */
+  public Map<String, Long> getResolutionNanos() {
+    return Collections.unmodifiableMap(resolutionNanos);
+  }
+
+  /**
+   * Returns {@link #attributeCacheHits}.
+   *
+   * @return {@link #attributeCacheHits}.
+   */
+  public long getAttributeCacheHits() {
+    return attributeCacheHits.get();
+  }
+
+  /**
+   * Returns {@link #attributeCacheMisses}.
+   *
+   * @return {@link #attributeCacheMisses}.
+   */
+  public long getAttributeCacheMisses() {
+    return attributeCacheMisses.get();
+  }
+
+  /**
+   * Returns {@link #attributesResolved}.
+   *
+   * @return {@link #attributesResolved}.
+   */
+  public long getAttributesResolved() {
+    return attributesResolved.get();
+  }
+
+  /**
+   * Sorts {@link #components} by name and then by class name, so the order does not depend on the order in which
+   * components were added.
    */
   public void sortComponents() {
-    Collections.sort(components);
+    components.sort(Comparator.<LibComponent>naturalOrder().thenComparing(LibComponent::getClassName));
+  }
+
+  /**
+   * Detaches the library from its {@link #inspector} and {@link #clearResolvedAttributes() clears the resolved
+   * attributes}. Call when the library is built: the model only holds strings, so once detached it no longer
+   * references the inspector or anything it loaded, and the inspector (and its class loader) can be closed and
+   * collected while the model is kept. No components can be added to a detached library.
+   */
+  public void detach() {
+    inspector = null;
+    clearResolvedAttributes();
   }
 
   /**
-   * Returns {@link #classLoader}.
+   * Returns {@link #inspector}.
    *
-   * @return {@link #classLoader}.
+   * @return {@link #inspector}, {@code null} if the library is {@link #detach() detached}.
    */
-  public ClassLoader getClassLoader() {
-    return classLoader;
+  public ClassInspector getInspector() {
+    return inspector;
   }
 
   /**
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of faces library models with least recently used eviction. Keys should identify everything the model
+ * depends on (project, classes, class path and configuration), so a cached model is never served for changed input.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class FacesLibCache {
+
+  /**
+   * Maximum number of cached models.
+   */
+  private final int maxSize;
+
+  /**
+   * Cached models by key, in access order.
+   */
+  private final Map<String, FacesLib> models;
+
+  /**
+   * Number of cache hits.
+   */
+  private long hits;
+
+  /**
+   * Number of cache misses.
+   */
+  private long misses;
+
+  /**
+   * Create cache.
+   *
+   * @param maxSize Sets {@link #maxSize}.
+   */
+  public FacesLibCache(int maxSize) {
+    this.maxSize = maxSize;
+    this.models = new LinkedHashMap<String, FacesLib>(16, 0.75f, true) {
+
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, FacesLib> eldest) {
+        return size() > FacesLibCache.this.maxSize;
+      }
+
+    };
+  }
+
+  /**
+   * Returns cached model or {@code null} if not cached.
+   *
+   * @param key Model key.
+   *
+   * @return Cached model or {@code null}.
+   */
+  public synchronized FacesLib get(String key) {
+    FacesLib facesLib = models.get(key);
+    if (facesLib == null) {
+      misses++;
+    }
+    else {
+      hits++;
+    }
+    return facesLib;
+  }
+
+  /**
+   * Caches model, evicting the least recently used model if the cache is full.
+   *
+   * @param key      Model key.
+   * @param facesLib Model to cache.
+   */
+  public synchronized void put(String key, FacesLib facesLib) {
+    models.put(key, facesLib);
+  }
+
+  /**
+   * Removes all cached models.
+   */
+  public synchronized void clear() {
+    models.clear();
+  }
+
+  /**
+   * Returns number of cached models.
+   *
+   * @return Number of cached models.
+   */
+  public synchronized int size() {
+    return models.size();
+  }
+
+  /**
+   * Returns {@link #hits}.
+   *
+   * @return {@link #hits}.
+   */
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  /**
+   * Returns {@link #misses}.
+   *
+   * @return {@link #misses}.
+   */
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  /**
+   * @return {@inheritDoc }
+   */
+  @Override
+  public synchronized String toString() {
+    return "FacesLibCache{" + "size=" + models.size() + ", maxSize=" + maxSize + ", hits=" + hits + ", misses="
+           + misses + '}';
+  }
+
+}
@@ -5,14 +5,9 @@ package org.starfaces.mavenplugin.model;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
-import javax.faces.component.FacesComponent;
-import javax.faces.component.UIComponent;
-import org.starfaces.annotations.Attribute;
-import org.starfaces.annotations.Description;
+import org.starfaces.mavenplugin.inspect.ComponentInfo;
 import org.starfaces.mavenplugin.util.Utils;
 
 /**
@@ -27,9 +22,9 @@ public class LibComponent implements Comparable<LibComponent> {
   private final FacesLib facesLib;
 
   /**
-   * LibComponent class.
+   * LibComponent class name.
    */
-  private final Class<UIComponent> clss;
+  private final String className;
 
   /**
    * Name of the attribute.
@@ -47,72 +42,56 @@ public class LibComponent implements Comparable<LibComponent> {
   private final String description;
 
   /**
-   * LibComponent attributes.
+   * LibComponent attributes sorted by name. The list and its attributes can be shared with other components.
    */
-  private final List<CompAttribute> attributes = new ArrayList<>();
+  private final List<CompAttribute> attributes;
 
   /**
-   * Create component.
-   *
-   * @param facesLib Parent.
-   * @param clss     Component class.
+   * Names of the classes attributes were read from, starting with the component class itself.
    */
-  LibComponent(FacesLib facesLib, Class<UIComponent> clss) {
-    this.facesLib = facesLib;
-    this.clss = clss;
-    FacesComponent component = clss.getAnnotation(FacesComponent.class);
-    Description descriptionAnn = clss.getAnnotation(Description.class);
-    this.name = Utils.coalesce(Utils.nullIfEmpty(component.tagName()),
-                               Utils.lowerCaseFirst(clss.getSimpleName()));
-    this.type = component.value();
-    this.description = descriptionAnn == null ? null : descriptionAnn.value();
-    readAttributes();
-  }
+  private final List<String> hierarchy = new ArrayList<>();
 
   /**
-   * Read the component attributes by calling {@link #readAttributes(java.lang.Class, java.util.Map) } (passing an empty
-   * map) and sort them.
+   * Create component.
+   *
+   * @param facesLib  Parent.
+   * @param component Component information.
    */
-  private void readAttributes() {
-    readAttributes(clss, new HashMap<>()).forEach((k, v) -> addAttribute(k, v));
-    Collections.sort(attributes);
+  LibComponent(FacesLib facesLib, ComponentInfo component) {
+    this(facesLib, component, facesLib.resolveAttributes(component.getClassName()));
   }
 
   /**
-   * Reads attributes from the provided class by calling 
-   * {@link Utils#propertyKeys(java.lang.ClassLoader, java.lang.Class) } and recall this method as long as a super class
-   * is found.
+   * Create component with resolved class attributes.
    *
-   * @param clss         Class to read attributes from.
-   * @param propertyKeys Attributes read so far.
-   *
-   * @return Attributes read when no parent classes are found anymore.
+   * @param facesLib   Parent.
+   * @param component  Component information.
+   * @param attributes Attributes resolved over the class hierarchy.
    */
-  private Map<String, Attribute> readAttributes(Class<?> clss,
-                                                Map<String, Attribute> propertyKeys) {
-    Map<String, Attribute> newPropertyKeys = Utils.propertyKeys(facesLib.getClassLoader(), clss);
-    if (newPropertyKeys != null) {
-      newPropertyKeys.putAll(propertyKeys);
-    }
-    else {
-      newPropertyKeys = propertyKeys;
-    }
-    if (clss.getSuperclass() != null) {
-      return readAttributes(clss.getSuperclass(), newPropertyKeys);
-    }
-    else {
-      return newPropertyKeys;
-    }
+  private LibComponent(FacesLib facesLib, ComponentInfo component, ClassAttributes attributes) {
+    this(facesLib, component, attributes.getHierarchy(), attributes.getAttributes());
   }
 
   /**
-   * Add attribute.
+   * Create component with attributes that were resolved before.
    *
-   * @param name      Attribute name.
-   * @param attribute Attribute annotation.
-   */
-  private void addAttribute(String name, Attribute attribute) {
-    attributes.add(new CompAttribute(this, name, attribute));
+   * @param facesLib   Parent.
+   * @param component  Component information.
+   * @param hierarchy  Names of the classes the attributes were read from.
+   * @param attributes Unmodifiable list of attributes sorted by name.
+   */
+  LibComponent(FacesLib facesLib,
+               ComponentInfo component,
+               List<String> hierarchy,
+               List<CompAttribute> attributes) {
+    this.facesLib = facesLib;
+    this.className = component.getClassName();
+    this.name = Utils.coalesce(Utils.nullIfEmpty(component.getTagName()),
+                               Utils.lowerCaseFirst(component.getSimpleName()));
+    this.type = component.getType();
+    this.description = component.getDescription();
+    this.hierarchy.addAll(hierarchy);
+    this.attributes = attributes;
   }
 
   /**
@@ -124,6 +103,15 @@ public class LibComponent implements Comparable<LibComponent> {
     return facesLib;
   }
 
+  /**
+   * Returns {@link #className}.
+   *
+   * @return {@link #className}.
+   */
+  public String getClassName() {
+    return className;
+  }
+
   /**
    * Returns {@link #name}.
    *
@@ -157,7 +145,16 @@ public class LibComponent implements Comparable<LibComponent> {
    * @return {@link #attributes}.
    */
   public List<CompAttribute> getAttributes() {
-    return Collections.unmodifiableList(attributes);
+    return attributes;
+  }
+
+  /**
+   * Returns {@link #hierarchy}.
+   *
+   * @return {@link #hierarchy}.
+   */
+  public List<String> getHierarchy() {
+    return Collections.unmodifiableList(hierarchy);
   }
 
   /**
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.mojo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+import org.starfaces.mavenplugin.inspect.ClassInspector;
+import org.starfaces.mavenplugin.model.FacesLib;
+import org.starfaces.mavenplugin.model.LibComponent;
+import org.starfaces.mavenplugin.util.Utils;
+
+/**
+ * Generates one taglib for all modules of the reactor. The models of the modules are built in parallel (sharing one
+ * class inspector, so super classes in other modules are found) and merged, together with the components of the
+ * {@code scanDependencies} jars. Tag names have to be unique over all modules and jars.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+@Mojo(name = "taglib-xml-aggregate", aggregator = true, requiresDependencyResolution = ResolutionScope.COMPILE,
+      threadSafe = true)
+public class AggregateTagLibXmlMojo extends TagLibXmlMojo {
+
+  /**
+   * Scopes of the artifacts on the compile class path.
+   */
+  private static final List<String> COMPILE_SCOPES
+          = Arrays.asList(Artifact.SCOPE_COMPILE, Artifact.SCOPE_PROVIDED, Artifact.SCOPE_SYSTEM);
+
+  @Parameter(defaultValue = "${reactorProjects}", readonly = true, required = true)
+  private List<MavenProject> reactorProjects;
+
+  /**
+   * Compile class paths of all reactor modules, computed on first use.
+   */
+  private List<String> reactorClassPaths;
+
+  /**
+   * Returns the reactor modules that have a classes directory.
+   *
+   * @return Reactor modules that have a classes directory.
+   */
+  private List<MavenProject> getModules() {
+    return reactorProjects.stream()
+            .filter(p -> Files.isDirectory(getClassesPath(p)))
+            .collect(Collectors.toList());
+  }
+
+  /**
+   * Returns classes directory of a module.
+   *
+   * @param module Reactor module.
+   *
+   * @return Classes directory of the module.
+   */
+  private static Path getClassesPath(MavenProject module) {
+    return Paths.get(module.getBuild().getOutputDirectory());
+  }
+
+  /**
+   * Returns the compile class paths of all reactor modules: their classes directories followed by the files of their
+   * compile, provided and system scoped artifacts, in reactor order without duplicates.
+   *
+   * @return Compile class paths of all reactor modules.
+   */
+  @Override
+  protected List<String> getCompileClassPaths() {
+    if (reactorClassPaths == null) {
+      Set<String> classPaths = new LinkedHashSet<>();
+      for (MavenProject module : reactorProjects) {
+        classPaths.add(module.getBuild().getOutputDirectory());
+      }
+      for (MavenProject module : reactorProjects) {
+        for (Object object : module.getArtifacts()) {
+          Artifact artifact = (Artifact) object;
+          if (artifact.getFile() != null && COMPILE_SCOPES.contains(artifact.getScope())) {
+            classPaths.add(artifact.getFile().getAbsolutePath());
+          }
+        }
+      }
+      reactorClassPaths = new ArrayList<>(classPaths);
+    }
+    return reactorClassPaths;
+  }
+
+  /**
+   * Always {@code false}: the aggregate does not keep incremental state. The output is only written when its content
+   * changes, and the model is cached by the {@link #getModelKey() model key}.
+   *
+   * @param outputs {@inheritDoc }
+   *
+   * @return {@code false}.
+   */
+  @Override
+  protected boolean isUpToDate(Path... outputs) {
+    return false;
+  }
+
+  /**
+   * Does nothing, as the aggregate does not keep incremental state.
+   */
+  @Override
+  protected void saveState() {
+    // No state
+  }
+
+  /**
+   * Returns {@code taglib-xml-aggregate.state} in the {@code starfaces} directory of the reactor root. No state is
+   * saved, but the file name identifies this goal in the output cache key and names the
+   * {@code taglib-xml-aggregate-report.json} report.
+   *
+   * @return {@inheritDoc }
+   */
+  @Override
+  protected Path getStatePath() {
+    return Paths.get(getProject().getBuild().getDirectory(), "starfaces", "taglib-xml-aggregate.state");
+  }
+
+  /**
+   * Returns key identifying the aggregated model: coordinates of the reactor root and hashes of the class paths (which
+   * include the classes directories of all modules) and configuration.
+   *
+   * @return {@inheritDoc }
+   *
+   * @throws IOException {@inheritDoc }
+   */
+  @Override
+  protected String getModelKey() throws IOException {
+    MavenProject project = getProject();
+    return String.join("|",
+                       project.getGroupId(),
+                       project.getArtifactId(),
+                       project.getVersion(),
+                       "aggregate",
+                       getGenerator().getClassPathHash(),
+                       getGenerator().getConfigHash());
+  }
+
+  /**
+   * Builds a model per module in parallel and merges them, followed by the components of the dependency jars.
+   *
+   * @return {@inheritDoc }
+   *
+   * @throws IOException {@inheritDoc }
+   */
+  @Override
+  protected FacesLib buildFacesLib() throws IOException {
+    List<MavenProject> modules = getModules();
+    try (ClassInspector inspector = getGenerator().getClassInspector()) {
+      long start = System.nanoTime();
+      List<FacesLib> moduleLibs = Utils.inPool(getParallelism(), () -> modules.parallelStream()
+              .map(m -> buildModuleLib(inspector, m))
+              .collect(Collectors.toList()));
+      FacesLib dependencyLib = new FacesLib(inspector, getConfiguration());
+      Utils.inPool(getParallelism(), () -> getGenerator().addDependencyComponents(dependencyLib));
+      dependencyLib.detach();
+      FacesLib lib = new FacesLib(inspector, getConfiguration());
+      List<String> duplicates = new ArrayList<>();
+      for (int i = 0; i < modules.size(); i++) {
+        for (LibComponent duplicate : lib.merge(moduleLibs.get(i))) {
+          duplicates.add(String.format("%s (%s in %s)", duplicate.getName(), duplicate.getClassName(),
+                                       modules.get(i).getArtifactId()));
+        }
+      }
+      for (LibComponent duplicate : lib.merge(dependencyLib)) {
+        duplicates.add(String.format("%s (%s in dependency jars)", duplicate.getName(), duplicate.getClassName()));
+      }
+      if (!duplicates.isEmpty()) {
+        throw new IllegalStateException("Duplicate tag names: " + String.join(", ", duplicates));
+      }
+      lib.sortComponents();
+      lib.detach();
+      getReport().endPhase("model", start);
+      getGenerator().reportDiscovery();
+      getGenerator().reportClassLoading(inspector);
+      getLog().debug(String.format("Aggregated %d components of %d modules", lib.getComponents().size(),
+                                   modules.size()));
+      return lib;
+    }
+  }
+
+  /**
+   * Builds the model of a module.
+   *
+   * @param inspector Class inspector for all modules.
+   * @param module    Reactor module.
+   *
+   * @return Model of the module.
+   */
+  private FacesLib buildModuleLib(ClassInspector inspector, MavenProject module) {
+    FacesLib lib = new FacesLib(inspector, getConfiguration());
+    try {
+      Stream<String> classNames = Utils.classNames(getClassesPath(module), 100, getPackageFilter());
+      lib.addComponents(getGenerator().findComponents(inspector, classNames.parallel()));
+    }
+    catch (IOException ex) {
+      throw new IllegalStateException(ex);
+    }
+    getGenerator().reportResolution(lib);
+    lib.detach();
+    return lib;
+  }
+
+}
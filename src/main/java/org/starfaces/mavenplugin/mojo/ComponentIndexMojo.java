@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.mojo;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+import org.starfaces.mavenplugin.incremental.ComponentIndex;
+import org.starfaces.mavenplugin.output.ComponentIndexRenderer;
+import org.starfaces.mavenplugin.output.OutputStatus;
+
+/**
+ * Writes a {@link ComponentIndex} of the resolved components to {@code META-INF/starfaces.idx}, so builds using the
+ * jar can read the components without inspecting its classes.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+@Mojo(name = "component-index", requiresDependencyResolution = ResolutionScope.COMPILE,
+      threadSafe = true)
+public class ComponentIndexMojo extends FacesLibMojo {
+
+  @Parameter(defaultValue = "${project}", readonly = true, required = true)
+  private MavenProject project;
+
+  @Parameter(property = "project.compileClasspathElements", required = true, readonly = true)
+  private List<String> compileClassPaths;
+
+  @Override
+  public void execute() throws MojoExecutionException, MojoFailureException {
+    try {
+      Path indexPath = getBuildDirOutPath(ComponentIndex.PATH.split("/"));
+      if (isUpToDate(indexPath)) {
+        logUpToDate(indexPath);
+        writeReport();
+        return;
+      }
+      logProcessed(indexPath, render(new ComponentIndexRenderer(), indexPath));
+      saveState();
+      writeReport();
+    }
+    catch (IOException ex) {
+      throw new MojoExecutionException(ex.getMessage(), ex);
+    }
+  }
+
+  @Override
+  protected Path getStatePath() {
+    return Paths.get(getProject().getBuild().getDirectory(), "starfaces", "component-index.state");
+  }
+
+  @Override
+  protected MavenProject getProject() {
+    return project;
+  }
+
+  @Override
+  protected List<String> getCompileClassPaths() {
+    return compileClassPaths;
+  }
+
+}
@@ -3,29 +3,34 @@
  */
 package org.starfaces.mavenplugin.mojo;
 
-import freemarker.template.Configuration;
-import freemarker.template.Template;
-import freemarker.template.TemplateException;
-import java.io.FileOutputStream;
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.net.URL;
-import java.net.URLClassLoader;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
-import javax.faces.component.FacesComponent;
-import javax.faces.component.UIComponent;
+import org.apache.maven.artifact.Artifact;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.starfaces.mavenplugin.core.FacesLibGenerator;
+import org.starfaces.mavenplugin.inspect.DiscoveryMode;
 import org.starfaces.mavenplugin.model.FacesLib;
-import org.starfaces.mavenplugin.util.Utils;
+import org.starfaces.mavenplugin.model.FacesLibCache;
+import org.starfaces.mavenplugin.output.FreeMarkerRenderer;
+import org.starfaces.mavenplugin.output.OutputCache;
+import org.starfaces.mavenplugin.output.OutputStatus;
+import org.starfaces.mavenplugin.output.Renderer;
+import org.starfaces.mavenplugin.report.BuildReport;
+import org.starfaces.mavenplugin.util.PackageFilter;
 
 /**
  *
@@ -39,18 +44,114 @@ abstract class FacesLibMojo extends AbstractMojo {
   private static final String ARTIFACT_ID = "starfaces-maven-plugin";
 
   /**
-   * Faces library model.
+   * Maximum number of models kept in the {@link #MODEL_CACHE}.
    */
-  private static FacesLib facesLib;
+  private static final int MODEL_CACHE_SIZE = 16;
 
   /**
-   * FreeMarker configuration.
+   * Faces library models of previous executions in this JVM (reactor modules or daemon builds).
    */
-  private static final Configuration FREEMARKER_CONF;
+  private static final FacesLibCache MODEL_CACHE = new FacesLibCache(MODEL_CACHE_SIZE);
 
-  static {
-    FREEMARKER_CONF = new Configuration(Configuration.VERSION_2_3_28);
-  }
+  /**
+   * Directory containing user templates. Templates in this directory take precedence over the templates of this
+   * plugin, so it can be used to replace {@code taglib.xml.ftl} or to add templates to include.
+   */
+  @Parameter(property = "starfaces.templateDirectory")
+  private File templateDirectory;
+
+  /**
+   * How components are discovered. {@code BYTECODE} reads class files without loading them, {@code REFLECTION} loads
+   * all classes using a class loader.
+   */
+  @Parameter(property = "starfaces.discovery", defaultValue = "BYTECODE")
+  private DiscoveryMode discovery;
+
+  /**
+   * If {@code true} the state of the last generation is stored and used to skip generation when nothing changed, and
+   * to only inspect changed classes otherwise.
+   */
+  @Parameter(property = "starfaces.incremental", defaultValue = "true")
+  private boolean incremental;
+
+  /**
+   * Number of threads used to scan class files and build the model. Defaults to the number of available processors
+   * when {@code 0} or less.
+   */
+  @Parameter(property = "starfaces.parallelism", defaultValue = "0")
+  private int parallelism;
+
+  /**
+   * Dependencies to scan for components as {@code groupId:artifactId}. Components found in these jars are added to the
+   * generated output. Components found per jar are cached by the checksum of the jar, so unchanged jars are only
+   * inspected once.
+   */
+  @Parameter(property = "starfaces.scanDependencies")
+  private List<String> scanDependencies;
+
+  /**
+   * Packages to scan for components, including their sub packages. A {@code *} segment matches any package name, for
+   * example {@code com.example.*.component}. All packages are scanned if not set. Directories of other packages are
+   * not walked at all.
+   */
+  @Parameter
+  private List<String> includes;
+
+  /**
+   * Packages (and their sub packages) not to scan for components, for example generated JAXB or JPA metamodel
+   * packages. Takes precedence over {@link #includes}.
+   */
+  @Parameter
+  private List<String> excludes;
+
+  /**
+   * Filter created from {@link #includes} and {@link #excludes} on first use.
+   */
+  private PackageFilter packageFilter;
+
+  /**
+   * Directory of a cache of generated outputs shared by builds, for example a directory next to the local repository.
+   * Outputs are stored by a fingerprint of the contents of the class files, compile class path entries, templates
+   * and this plugin, and of the configuration. When a build has the same fingerprint, the cached output is copied into
+   * place without inspecting classes or rendering. Not used if not set.
+   */
+  @Parameter(property = "starfaces.outputCache")
+  private File outputCache;
+
+  /**
+   * If {@code true} a report with the time spent per phase, counters, written outputs and the most expensive components
+   * is written next to the incremental state, for example {@code target/starfaces/taglib-xml-report.json}.
+   */
+  @Parameter(property = "starfaces.report", defaultValue = "true")
+  private boolean report;
+
+  /**
+   * Maximum time in milliseconds per phase (for example {@code <model>2000</model>}). Phases exceeding their budget are
+   * logged as a warning, or fail the build if {@link #failOnBudget} is set.
+   */
+  @Parameter
+  private Map<String, Long> phaseBudgets;
+
+  /**
+   * If {@code true} the build fails when a phase exceeds its {@link #phaseBudgets budget}.
+   */
+  @Parameter(property = "starfaces.failOnBudget", defaultValue = "false")
+  private boolean failOnBudget;
+
+  /**
+   * Timings and counters of this execution, created on first use.
+   */
+  private BuildReport buildReport;
+
+  /**
+   * Generator building and rendering the model of this execution, created on first use.
+   */
+  private FacesLibGenerator generator;
+
+  /**
+   * Faces library model of this execution.
+   */
+  private FacesLib facesLib;
 
   /**
    * Returns project that triggered this plugin.
@@ -98,144 +199,334 @@ abstract class FacesLibMojo extends AbstractMojo {
   }
 
   /**
-   * Returns class loader for project's compiled classes and provided class paths.
+   * Returns {@link #parallelism} or the number of available processors if not set.
    *
-   * @return Class loader for project's compiled classes and provided class paths.
+   * @return Number of threads to use.
    */
-  private ClassLoader getClassLoader() {
-    List<URL> urls = getCompileClassPaths().stream().map(Utils::toURL).collect(Collectors.toList());
-    urls.add(Utils.toURL(getBuildDirClassesPath()));
-    return URLClassLoader.newInstance(urls.toArray(new URL[urls.size()]),
-                                      FacesLibMojo.class.getClassLoader());
+  protected int getParallelism() {
+    return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
   }
 
   /**
-   * Classes loaded using {@link #getClassLoader() } from path {@link #getBuildDirClassesPath() } with a maximum depth
-   * of 100.
+   * Returns {@link #generator} which will be created for the project's build classes path, the compile class paths and
+   * the configuration of this plugin if {@code null}. If {@link #incremental} is enabled, the generator keeps its
+   * state in the {@link #getStatePath() state path}.
    *
-   * @param classLoader Class loader.
+   * @return {@link #generator}.
+   */
+  protected FacesLibGenerator getGenerator() {
+    if (generator == null) {
+      List<Path> classPaths = getCompileClassPaths().stream().map(Paths::get).collect(Collectors.toList());
+      generator = new FacesLibGenerator(getBuildDirClassesPath(), classPaths, getConfiguration(), getReport());
+      generator.setDiscovery(discovery);
+      generator.setParallelism(parallelism);
+      generator.setPackageFilter(getPackageFilter());
+      generator.setDependencyJars(getDependencyJars());
+      generator.setJarIndexPath(getJarIndexPath());
+      generator.setTemplateDirectory(templateDirectory == null ? null : templateDirectory.toPath());
+      generator.setOutputSettings(getOutputSettings());
+      generator.setStatePath(incremental ? getStatePath() : null);
+      generator.setFingerprintPath(getStatePath().resolveSibling("classpath.state"));
+      generator.setDebugLog(getLog()::debug);
+    }
+    return generator;
+  }
+
+  /**
+   * Returns {@link #packageFilter} which will be created from {@link #includes} and {@link #excludes} if {@code null}.
    *
-   * @return Loaded classes.
+   * @return {@link #packageFilter}.
    */
-  private Stream<Class<?>> loadClasses(ClassLoader classLoader) {
-    try {
-      return Utils.classNames(getBuildDirClassesPath(), 100)
-              .map(c -> loadClass(classLoader, c));
+  protected PackageFilter getPackageFilter() {
+    if (packageFilter == null) {
+      packageFilter = new PackageFilter(includes, excludes);
     }
-    catch (IOException ex) {
-      throw new IllegalStateException(ex);
+    return packageFilter;
+  }
+
+  /**
+   * Returns the jar files of the {@link #scanDependencies dependencies to scan}, sorted by path.
+   *
+   * @return Jar files of the dependencies to scan.
+   */
+  private List<Path> getDependencyJars() {
+    if (scanDependencies == null || scanDependencies.isEmpty()) {
+      return Collections.emptyList();
     }
+    List<Path> jars = new ArrayList<>();
+    for (Object object : getProject().getArtifacts()) {
+      Artifact artifact = (Artifact) object;
+      if (scanDependencies.contains(artifact.getGroupId() + ':' + artifact.getArtifactId())
+          && artifact.getFile() != null && artifact.getFile().isFile()) {
+        jars.add(artifact.getFile().toPath());
+      }
+    }
+    Collections.sort(jars);
+    return jars;
+  }
+
+  /**
+   * Returns path of the directory storing the component indexes of dependency jars.
+   *
+   * @return Path of the directory storing the component indexes of dependency jars.
+   */
+  protected Path getJarIndexPath() {
+    return Paths.get(getProject().getBuild().getDirectory(), "starfaces", "jars");
+  }
+
+  /**
+   * Returns path of the file storing the state of the last generation.
+   *
+   * @return Path of the file storing the state of the last generation.
+   */
+  protected Path getStatePath() {
+    return Paths.get(getProject().getBuild().getDirectory(), "starfaces", "taglib-xml.state");
+  }
+
+  /**
+   * Returns path of the report file: the {@link #getStatePath() state path} with {@code .state} replaced by
+   * {@code -report.json}.
+   *
+   * @return Path of the report file.
+   */
+  protected Path getReportPath() {
+    Path statePath = getStatePath();
+    return statePath.resolveSibling(statePath.getFileName().toString().replace(".state", "-report.json"));
   }
 
   /**
-   * Loads class using provided class loader with provided name.
+   * Returns {@link #buildReport} which will be created if {@code null}. The goal is taken from the
+   * {@link #getReportPath() report path}.
    *
-   * @param classLoader Class loader to load class with.
-   * @param className   Class name to load.
+   * @return {@link #buildReport}.
+   */
+  protected BuildReport getReport() {
+    if (buildReport == null) {
+      buildReport = new BuildReport(getReportPath().getFileName().toString().replace("-report.json", ""));
+    }
+    return buildReport;
+  }
+
+  /**
+   * Writes the {@link #getReport() report} if {@link #report} is enabled and checks the {@link #phaseBudgets}.
    *
-   * @return Loaded class.
+   * @throws IOException          If any exceptions happen writing.
+   * @throws MojoFailureException If a phase exceeds its budget and {@link #failOnBudget} is set.
    */
-  private Class<?> loadClass(ClassLoader classLoader, String className) {
-    try {
-      return classLoader.loadClass(className);
+  protected void writeReport() throws IOException, MojoFailureException {
+    if (report) {
+      getReport().write(getReportPath());
+      getLog().debug("Report written to " + getReportPath());
+    }
+    if (phaseBudgets == null) {
+      return;
+    }
+    List<String> exceeded = new ArrayList<>();
+    for (Map.Entry<String, Long> budget : phaseBudgets.entrySet()) {
+      long millis = getReport().getPhaseMillis(budget.getKey());
+      if (millis > budget.getValue()) {
+        exceeded.add(String.format("%s took %d ms (budget %d ms)", budget.getKey(), millis, budget.getValue()));
+      }
     }
-    catch (ClassNotFoundException ex) {
-      throw new IllegalStateException(ex);
+    if (exceeded.isEmpty()) {
+      return;
     }
+    String message = "Phase budget exceeded: " + String.join(", ", exceeded);
+    if (failOnBudget) {
+      throw new MojoFailureException(message);
+    }
+    getLog().warn(message);
   }
 
   /**
-   * Loads classes using {@link #loadClasses() }, filters them using {@link #isFacesComponent(java.lang.Class) }
-   * and maps them using {@link #toUIComponentClass(java.lang.Class) }.
+   * Returns goal specific settings affecting the generated output (which can also be set using properties), so they
+   * are part of the {@link FacesLibGenerator#getConfigHash() configuration hash}.
    *
-   * @param classLoader Class loader.
+   * @return Goal specific settings affecting the generated output.
+   */
+  protected String getOutputSettings() {
+    return "";
+  }
+
+  /**
+   * Returns the {@link #outputCache} or {@code null} if not set.
    *
-   * @return Stream of {@link UIComponent} classes.
+   * @return The output cache or {@code null}.
    */
-  private Stream<Class<UIComponent>> loadComponents(ClassLoader classLoader) {
-    return loadClasses(classLoader)
-            .filter(this::isFacesComponent)
-            .map(this::toUIComponentClass);
+  protected OutputCache getOutputCache() {
+    return outputCache == null ? null : new OutputCache(outputCache.toPath());
   }
 
   /**
-   * Returns {@code true} if the class is annotated with {@link FacesComponent}.
+   * Returns {@code true} if {@link #incremental} is enabled, nothing changed since the last generation and all
+   * outputs exist.
+   *
+   * @param outputs Generated files.
    *
-   * @param clss Class to check for annotation.
+   * @return {@code true} if generation can be skipped.
    *
-   * @return {@code true} if the class is annotated with {@link FacesComponent}.
+   * @throws IOException If any exceptions happen reading.
    */
-  private boolean isFacesComponent(Class<?> clss) {
-    return clss.isAnnotationPresent(FacesComponent.class);
+  protected boolean isUpToDate(Path... outputs) throws IOException {
+    if (!incremental) {
+      return false;
+    }
+    for (Path output : outputs) {
+      if (!Files.isRegularFile(output)) {
+        return false;
+      }
+    }
+    return getGenerator().isUpToDate();
   }
 
   /**
-   * Processes FreeMarker template to the provided writer.
+   * Stores the state of this generation if {@link #incremental} is enabled.
    *
-   * @param template FreeMarker template.
-   * @param writer   Writer to write processed template output to.
-   *
-   * @throws IOException If any exceptions happen reading, processing or writing.
+   * @throws IOException If any exceptions happen writing.
    */
-  protected void process(InputStream template, OutputStreamWriter writer) throws IOException {
-    Template freeMarkerTemplate = new Template(template.toString(),
-                                               new InputStreamReader(template),
-                                               FREEMARKER_CONF);
-    try {
-      freeMarkerTemplate.process(getFacesLib(), writer);
+  protected void saveState() throws IOException {
+    if (incremental) {
+      getGenerator().saveState(getFacesLib());
     }
-    catch (TemplateException ex) {
-      throw new IOException(ex);
+  }
+
+  /**
+   * Stores the class file fingerprints, without a model, if {@link #incremental} is enabled. Used when the outputs were
+   * restored instead of generated, so the next build is {@link #isUpToDate up to date} if nothing changed.
+   *
+   * @throws IOException If any exceptions happen writing.
+   */
+  protected void saveFingerprints() throws IOException {
+    if (incremental) {
+      getGenerator().saveFingerprints();
     }
   }
 
   /**
-   * Processes FreeMarker template to the provided writer.
+   * Log path that is up to date.
    *
-   * @param template FreeMarker template.
-   * @param writer   Writer to write processed template output to.
+   * @param path Path to log.
+   */
+  protected void logUpToDate(Path path) {
+    getLog().info(String.format("Up to date: %s", path.toString()));
+  }
+
+  /**
+   * Renders the {@link #getFacesLib() model} to the provided destination. The destination is only written if its
+   * content changes.
+   *
+   * @param renderer    Renderer to use.
+   * @param destination Path to write rendered output to.
+   *
+   * @return Whether the destination was created, updated or unchanged.
+   *
+   * @throws IOException If any exceptions happen rendering or writing.
+   */
+  protected OutputStatus render(Renderer renderer, Path destination) throws IOException {
+    return getGenerator().render(renderer, getFacesLib(), destination);
+  }
+
+  /**
+   * Processes FreeMarker template to the provided destination. The destination is only written if its content changes.
+   *
+   * @param template    FreeMarker template name.
+   * @param destination Path to write processed template output to.
+   *
+   * @return Whether the destination was created, updated or unchanged.
    *
    * @throws IOException If any exceptions happen reading, processing or writing.
    */
-  protected void process(InputStream template, Path destination) throws IOException {
-    try (OutputStreamWriter writer = new OutputStreamWriter(new FileOutputStream(destination.toFile()))) {
-      process(template, writer);
-    }
+  protected OutputStatus process(String template, Path destination) throws IOException {
+    return render(new FreeMarkerRenderer(getGenerator().getFreeMarkerConfiguration(), template), destination);
   }
 
   /**
    * Log path that was processed.
    *
-   * @param path Path to log.
+   * @param path   Path to log.
+   * @param status Output status of the path.
    */
-  protected void logProcessed(Path path) {
-    getLog().info(String.format("Processed: %s", path.toString()));
+  protected void logProcessed(Path path, OutputStatus status) {
+    getLog().info(String.format("Processed (%s): %s", status.name().toLowerCase(), path.toString()));
   }
 
   /**
-   * Casts class to class of type {@link UIComponent}.
+   * Returns key identifying the model of this execution in the {@link #MODEL_CACHE}.
    *
-   * @param clss Class to cast.
+   * @return Key identifying the model of this execution.
    *
-   * @return Casted class.
+   * @throws IOException If any exceptions happen reading.
+   *
+   * @see FacesLibGenerator#getModelKey()
+   */
+  protected String getModelKey() throws IOException {
+    return getGenerator().getModelKey();
+  }
+
+  /**
+   * Builds the faces library model by inspecting classes (and reusing components from the incremental build state).
+   * Components of dependency jars are taken from their (cached) indexes.
+   *
+   * @return Faces library model.
+   *
+   * @throws IOException If any exceptions happen reading.
    */
-  @SuppressWarnings("unchecked")
-  private Class<UIComponent> toUIComponentClass(Class<?> clss) {
-    return (Class<UIComponent>) clss;
+  protected FacesLib buildFacesLib() throws IOException {
+    FacesLib lib = getGenerator().build();
+    getLog().debug(String.format("Attribute resolution: %d cache hits, %d misses",
+                                 lib.getAttributeCacheHits(), lib.getAttributeCacheMisses()));
+    return lib;
   }
 
   /**
-   * @return {@link #facesLib} with will be create if {@code null}.
+   * Returns {@link #facesLib} which will be taken from the {@link #MODEL_CACHE} or built if {@code null}.
    *
    * @return {@link #facesLib}.
    */
   public FacesLib getFacesLib() {
     if (facesLib == null) {
-      facesLib = new FacesLib(getClassLoader(), getConfiguration());
-      loadComponents(facesLib.getClassLoader()).forEach(facesLib::addComponent);
-      facesLib.sortComponents();
+      try {
+        String key = getModelKey();
+        facesLib = MODEL_CACHE.get(key);
+        if (facesLib == null) {
+          facesLib = buildFacesLib();
+          MODEL_CACHE.put(key, facesLib);
+        }
+        else {
+          getReport().addCounter("modelCached", 1);
+          getLog().debug("Reusing cached model for " + getProject().getArtifactId());
+        }
+        getReport().addCounter("components", facesLib.getComponents().size());
+      }
+      catch (IOException ex) {
+        throw new IllegalStateException(ex);
+      }
     }
     return facesLib;
   }
 
+  /**
+   * Updates the {@link #getFacesLib() model} after classes in the {@link #getBuildDirClassesPath() classes path}
+   * changed. Components depending on a changed class, and changed classes accepted by the
+   * {@link #getPackageFilter() package filter}, are inspected again as far as they still exist. All other components
+   * are kept as they are. A new class inspector (without class name index) is used, so no stale class files or
+   * classes are read. The update uses a new {@link #getGenerator() generator} (so hashes and the incremental state
+   * are computed again) and {@link #getReport() report}, and the updated model is put in the {@link #MODEL_CACHE}.
+   *
+   * @param changedClasses Names of the classes that were added, changed or removed.
+   *
+   * @return Updated model.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  protected FacesLib updateFacesLib(Set<String> changedClasses) throws IOException {
+    FacesLib previous = getFacesLib();
+    generator = null;
+    buildReport = null;
+    facesLib = getGenerator().update(previous, changedClasses);
+    MODEL_CACHE.put(getModelKey(), facesLib);
+    getReport().addCounter("components", facesLib.getComponents().size());
+    return facesLib;
+  }
+
 }
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.mojo;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+import org.starfaces.mavenplugin.output.ComponentIndexRenderer;
+import org.starfaces.mavenplugin.output.FreeMarkerRenderer;
+import org.starfaces.mavenplugin.output.OutputStatus;
+import org.starfaces.mavenplugin.output.Renderer;
+import org.starfaces.mavenplugin.output.StaxTagLibRenderer;
+import org.starfaces.mavenplugin.util.Utils;
+
+/**
+ * Renders several {@link Output outputs} from one model. The model is built once, after which the outputs are rendered
+ * in parallel, each to its own destination.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+@Mojo(name = "generate", requiresDependencyResolution = ResolutionScope.COMPILE,
+      threadSafe = true)
+public class GenerateMojo extends FacesLibMojo {
+
+  @Parameter(defaultValue = "${project}", readonly = true, required = true)
+  private MavenProject project;
+
+  @Parameter(property = "project.compileClasspathElements", required = true, readonly = true)
+  private List<String> compileClassPaths;
+
+  /**
+   * Outputs to render.
+   */
+  @Parameter(required = true)
+  private List<Output> outputs;
+
+  @Override
+  public void execute() throws MojoExecutionException, MojoFailureException {
+    try {
+      Path[] destinations = outputs.stream().map(o -> o.getDestination().toPath()).toArray(Path[]::new);
+      if (isUpToDate(destinations)) {
+        for (Path destination : destinations) {
+          logUpToDate(destination);
+        }
+        writeReport();
+        return;
+      }
+      getFacesLib();
+      List<OutputStatus> statuses = Utils.inPool(getParallelism(), () -> outputs.parallelStream()
+              .map(o -> {
+                try {
+                  return render(getRenderer(o), o.getDestination().toPath());
+                }
+                catch (IOException ex) {
+                  throw new IllegalStateException(ex);
+                }
+              })
+              .collect(Collectors.toList()));
+      for (int i = 0; i < destinations.length; i++) {
+        logProcessed(destinations[i], statuses.get(i));
+      }
+      saveState();
+      writeReport();
+    }
+    catch (IOException ex) {
+      throw new MojoExecutionException(ex.getMessage(), ex);
+    }
+  }
+
+  /**
+   * Returns renderer for an output.
+   *
+   * @param output Output to render.
+   *
+   * @return Renderer for the output.
+   */
+  private Renderer getRenderer(Output output) {
+    switch (output.getRenderer()) {
+      case STAX:
+        return new StaxTagLibRenderer();
+      case COMPONENT_INDEX:
+        return new ComponentIndexRenderer();
+      default:
+        if (output.getTemplate() == null) {
+          throw new IllegalStateException("No template set for output " + output.getDestination());
+        }
+        return new FreeMarkerRenderer(getGenerator().getFreeMarkerConfiguration(), output.getTemplate());
+    }
+  }
+
+  @Override
+  protected String getOutputSettings() {
+    return String.valueOf(outputs);
+  }
+
+  @Override
+  protected Path getStatePath() {
+    return Paths.get(getProject().getBuild().getDirectory(), "starfaces", "generate.state");
+  }
+
+  @Override
+  protected MavenProject getProject() {
+    return project;
+  }
+
+  @Override
+  protected List<String> getCompileClassPaths() {
+    return compileClassPaths;
+  }
+
+}
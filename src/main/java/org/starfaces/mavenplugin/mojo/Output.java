@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.mojo;
+
+import java.io.File;
+import org.starfaces.mavenplugin.output.RendererType;
+
+/**
+ * Output of the {@code generate} goal: a FreeMarker template or generator rendered to a destination file.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class Output {
+
+  /**
+   * Name of the FreeMarker template to process. Looked up in the template directory first (if set) and then in this
+   * plugin's resources.
+   */
+  private String template;
+
+  /**
+   * Renderer to use. Defaults to {@code FREEMARKER}, which processes the {@link #template}.
+   */
+  private RendererType renderer = RendererType.FREEMARKER;
+
+  /**
+   * File to write the output to. Relative paths are resolved against the project's base directory.
+   */
+  private File destination;
+
+  /**
+   * Returns {@link #template}.
+   *
+   * @return {@link #template}.
+   */
+  public String getTemplate() {
+    return template;
+  }
+
+  /**
+   * Returns {@link #renderer}.
+   *
+   * @return {@link #renderer}.
+   */
+  public RendererType getRenderer() {
+    return renderer;
+  }
+
+  /**
+   * Returns {@link #destination}.
+   *
+   * @return {@link #destination}.
+   */
+  public File getDestination() {
+    return destination;
+  }
+
+  /**
+   * @return {@inheritDoc }
+   */
+  @Override
+  public String toString() {
+    return "Output{" + "template=" + template + ", renderer=" + renderer + ", destination=" + destination + '}';
+  }
+
+}
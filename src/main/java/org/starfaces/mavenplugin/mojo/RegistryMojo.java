@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.mojo;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+import org.starfaces.mavenplugin.model.CompAttribute;
+import org.starfaces.mavenplugin.model.FacesLib;
+import org.starfaces.mavenplugin.model.LibComponent;
+import org.starfaces.mavenplugin.output.FreeMarkerRenderer;
+import org.starfaces.mavenplugin.output.OutputStatus;
+import org.starfaces.mavenplugin.output.Renderer;
+
+/**
+ * Generates the Java source of a registry of the tag library (namespace, tags, component types and attributes) and
+ * compiles it to the classes directory, so applications can register the tags at startup without parsing the taglib.
+ * The registry is a plain data holder: nothing registers it with JSF, the application has to read it and register the
+ * tags itself (using the component handler API of its JSF implementation).
+ * Attributes shared by components (like the ones of a common super class) are created once, from compact string
+ * constants instead of code per attribute, which is both smaller and faster to load.
+ * As the model is built from the compiled classes, the registry is compiled by this goal instead of by the compiler
+ * plugin. The class files of the registry are fingerprinted after compiling, so the next build is up to date. The
+ * generated sources directory is added as compile source root, so it is picked up by plugins running later (like the
+ * source plugin).
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+@Mojo(name = "registry", requiresDependencyResolution = ResolutionScope.COMPILE,
+      threadSafe = true)
+public class RegistryMojo extends FacesLibMojo {
+
+  /**
+   * Number of tags per nested class of the registry.
+   */
+  private static final int CHUNK_SIZE = 500;
+
+  /**
+   * Maximum number of characters of encoded attributes per string constant. String constants are limited to 65535
+   * bytes of modified UTF-8, which uses up to three bytes per character.
+   */
+  private static final int MAX_CHUNK_LENGTH = 16_000;
+
+  @Parameter(defaultValue = "${project}", readonly = true, required = true)
+  private MavenProject project;
+
+  @Parameter(property = "project.compileClasspathElements", required = true, readonly = true)
+  private List<String> compileClassPaths;
+
+  /**
+   * Fully qualified name of the registry class to generate.
+   */
+  @Parameter(property = "starfaces.registryClass", required = true)
+  private String registryClass;
+
+  /**
+   * Name of the FreeMarker template to process.
+   */
+  @Parameter(property = "starfaces.registryTemplate", defaultValue = "registry.java.ftl")
+  private String registryTemplate;
+
+  /**
+   * Directory to write the registry source to.
+   */
+  @Parameter(property = "starfaces.generatedSourcesDirectory",
+             defaultValue = "${project.build.directory}/generated-sources/starfaces")
+  private File generatedSourcesDirectory;
+
+  /**
+   * Java release to compile the registry for, like the {@code release} option of the compiler plugin.
+   */
+  @Parameter(property = "maven.compiler.release")
+  private String release;
+
+  /**
+   * Java version of the registry source, used if {@link #release} is not set.
+   */
+  @Parameter(property = "maven.compiler.source")
+  private String source;
+
+  /**
+   * Java version to compile the registry for, used if {@link #release} is not set.
+   */
+  @Parameter(property = "maven.compiler.target")
+  private String target;
+
+  @Override
+  public void execute() throws MojoExecutionException, MojoFailureException {
+    try {
+      project.addCompileSourceRoot(generatedSourcesDirectory.getAbsolutePath());
+      Path sourcePath = generatedSourcesDirectory.toPath().resolve(registryClass.replace('.', '/') + ".java");
+      Path classPath = getBuildDirOutPath((registryClass.replace('.', '/') + ".class").split("/"));
+      if (isUpToDate(sourcePath, classPath)) {
+        logUpToDate(sourcePath);
+        writeReport();
+        return;
+      }
+      int index = registryClass.lastIndexOf('.');
+      Map<String, Object> variables = new HashMap<>();
+      variables.put("packageName", index < 0 ? "" : registryClass.substring(0, index));
+      variables.put("className", registryClass.substring(index + 1));
+      variables.put("chunkSize", CHUNK_SIZE);
+      putAttributes(getFacesLib(), variables);
+      Renderer registryRenderer = new FreeMarkerRenderer(getGenerator().getFreeMarkerConfiguration(), registryTemplate,
+                                                         variables);
+      OutputStatus status = render(registryRenderer, sourcePath);
+      logProcessed(sourcePath, status);
+      if (status != OutputStatus.UNCHANGED || !Files.isRegularFile(classPath)) {
+        long start = System.nanoTime();
+        compile(sourcePath);
+        getReport().endPhase("compile", start);
+        getLog().info(String.format("Compiled: %s", classPath));
+        getGenerator().rescanClasses();
+      }
+      saveState();
+      writeReport();
+    }
+    catch (IOException ex) {
+      throw new MojoExecutionException(ex.getMessage(), ex);
+    }
+  }
+
+  /**
+   * Puts the distinct attributes of all components and per component the indexes of its attributes in the template
+   * variables, so the registry creates every distinct attribute once. Attributes are distinct by name, required and
+   * type; descriptions are not part of the registry. The attributes are encoded as {@code name type required} entries
+   * ({@code attributeChunks}), split into chunks that fit a string constant of a class file.
+   *
+   * @param lib       Faces library model.
+   * @param variables Template variables.
+   */
+  static void putAttributes(FacesLib lib, Map<String, Object> variables) {
+    List<List<String>> chunks = new ArrayList<>();
+    List<String> chunk = new ArrayList<>();
+    int chunkLength = 0;
+    Map<List<Object>, Integer> indexes = new HashMap<>();
+    List<String> attributeIndexes = new ArrayList<>();
+    for (LibComponent component : lib.getComponents()) {
+      StringJoiner joiner = new StringJoiner(",");
+      for (CompAttribute attribute : component.getAttributes()) {
+        List<Object> key = Arrays.asList(attribute.getName(), attribute.isRequired(), attribute.getType());
+        Integer index = indexes.get(key);
+        if (index == null) {
+          String entry = attribute.getName() + ' ' + attribute.getType() + ' ' + attribute.isRequired();
+          if (entry.chars().anyMatch(c -> c == ',') || entry.split(" ").length != 3) {
+            throw new IllegalStateException("Cannot encode attribute in registry: " + entry);
+          }
+          if (chunkLength + entry.length() > MAX_CHUNK_LENGTH) {
+            chunks.add(chunk);
+            chunk = new ArrayList<>();
+            chunkLength = 0;
+          }
+          chunk.add(entry);
+          chunkLength += entry.length() + 1;
+          index = indexes.size();
+          indexes.put(key, index);
+        }
+        joiner.add(index.toString());
+      }
+      attributeIndexes.add(joiner.toString());
+    }
+    if (!chunk.isEmpty()) {
+      chunks.add(chunk);
+    }
+    variables.put("attributeCount", indexes.size());
+    variables.put("attributeChunks", chunks);
+    variables.put("attributeIndexes", attributeIndexes);
+  }
+
+  /**
+   * Compiles the registry source to the classes directory.
+   *
+   * @param sourcePath Registry source.
+   *
+   * @throws IOException If any exceptions happen compiling, or if the source does not compile.
+   */
+  private void compile(Path sourcePath) throws IOException {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler == null) {
+      throw new IllegalStateException("A JDK is required to compile the registry");
+    }
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+      Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(
+              Arrays.asList(sourcePath.toFile()));
+      List<String> options = new ArrayList<>(Arrays.asList("-d", getBuildDirOutPath().toString(),
+                                                           "-encoding", StandardCharsets.UTF_8.name(),
+                                                           "-proc:none", "-nowarn"));
+      if (release != null) {
+        options.addAll(Arrays.asList("--release", release));
+      }
+      else {
+        if (source != null) {
+          options.addAll(Arrays.asList("-source", source));
+        }
+        if (target != null) {
+          options.addAll(Arrays.asList("-target", target));
+        }
+      }
+      if (!compiler.getTask(null, fileManager, diagnostics, options, null, units).call()) {
+        throw new IOException("Could not compile " + sourcePath + ": " + diagnostics.getDiagnostics().stream()
+                .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+                .map(d -> d.getLineNumber() + ": " + d.getMessage(null))
+                .collect(Collectors.joining(", ")));
+      }
+    }
+  }
+
+  @Override
+  protected Path getStatePath() {
+    return Paths.get(getProject().getBuild().getDirectory(), "starfaces", "registry.state");
+  }
+
+  @Override
+  protected String getOutputSettings() {
+    return registryClass + ' ' + registryTemplate + ' ' + release + ' ' + source + ' ' + target;
+  }
+
+  @Override
+  protected MavenProject getProject() {
+    return project;
+  }
+
+  @Override
+  protected List<String> getCompileClassPaths() {
+    return compileClassPaths;
+  }
+
+}
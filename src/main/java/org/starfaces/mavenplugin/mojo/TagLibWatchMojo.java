@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.mojo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.starfaces.mavenplugin.model.FacesLib;
+import org.starfaces.mavenplugin.model.LibComponent;
+import org.starfaces.mavenplugin.output.OutputStatus;
+import org.starfaces.mavenplugin.util.Utils;
+
+/**
+ * Generates the taglib and keeps running, watching the classes path for changes. Changes are collected until no new
+ * changes arrive for {@link #watchDebounce} milliseconds (compilers write bursts of class files), after which only
+ * the components depending on the changed classes are inspected again and the taglib(s) are rendered. Stop using
+ * Ctrl+C.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+@Mojo(name = "taglib-watch", requiresDependencyResolution = ResolutionScope.COMPILE,
+      threadSafe = true)
+public class TagLibWatchMojo extends TagLibXmlMojo {
+
+  /**
+   * Time in milliseconds without new changes before the taglib is regenerated.
+   */
+  @Parameter(property = "starfaces.watchDebounce", defaultValue = "200")
+  private long watchDebounce;
+
+  @Override
+  public void execute() throws MojoExecutionException, MojoFailureException {
+    super.execute();
+    Path classesPath = getBuildDirClassesPath();
+    try (WatchService watchService = classesPath.getFileSystem().newWatchService()) {
+      register(watchService, classesPath);
+      getLog().info(String.format("Watching %s (press Ctrl+C to stop)", classesPath));
+      while (!Thread.currentThread().isInterrupted()) {
+        Set<String> changedClasses = new TreeSet<>();
+        WatchKey key = watchService.take();
+        boolean overflow = false;
+        while (key != null) {
+          overflow |= collect(watchService, key, classesPath, changedClasses);
+          key = watchService.poll(watchDebounce, TimeUnit.MILLISECONDS);
+        }
+        if (overflow) {
+          changedClasses.addAll(getAllClassNames(classesPath));
+        }
+        if (!changedClasses.isEmpty()) {
+          regenerate(changedClasses);
+        }
+      }
+    }
+    catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    catch (IOException ex) {
+      throw new MojoExecutionException(ex.getMessage(), ex);
+    }
+    getLog().info(String.format("Stopped watching %s", classesPath));
+  }
+
+  /**
+   * Updates the model for the changed classes, renders the taglib(s), and saves the state and report. Failures (like
+   * class files that are still being written, or exceeded budgets) are logged, so watching continues.
+   *
+   * @param changedClasses Names of the classes that were added, changed or removed.
+   */
+  private void regenerate(Set<String> changedClasses) {
+    long start = System.nanoTime();
+    try {
+      FacesLib lib = updateFacesLib(changedClasses);
+      Map<Path, OutputStatus> statuses = renderTagLibs();
+      long written = statuses.values().stream().filter(s -> s != OutputStatus.UNCHANGED).count();
+      getLog().info(String.format("Processed %d taglib(s), %d written, in %d ms (%d classes changed, %d components)",
+                                  statuses.size(), written, (System.nanoTime() - start) / 1_000_000,
+                                  changedClasses.size(), lib.getComponents().size()));
+      statuses.forEach((path, status) -> getLog().debug(String.format("%s: %s", status.name().toLowerCase(), path)));
+      saveState();
+      writeReport();
+    }
+    catch (IOException | MojoFailureException | RuntimeException ex) {
+      getLog().warn("Could not regenerate, waiting for next change: " + ex.getMessage());
+      getLog().debug(ex);
+    }
+  }
+
+  /**
+   * Returns names of all classes in the classes path and of all components in the current model, used to update
+   * everything when change events were lost.
+   *
+   * @param classesPath Classes path.
+   *
+   * @return Class names.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  private Set<String> getAllClassNames(Path classesPath) throws IOException {
+    Set<String> classNames = Utils.inPool(getParallelism(), () -> Utils.classNames(classesPath, 100)
+            .collect(Collectors.toSet()));
+    getFacesLib().getComponents().stream().map(LibComponent::getClassName).forEach(classNames::add);
+    return classNames;
+  }
+
+  /**
+   * Collects the changed classes of the events of a watch key and resets the key. New directories are registered and
+   * the classes they already contain are collected. Deleted directories are handled like lost events.
+   *
+   * @param watchService   Watch service to register new directories with.
+   * @param key            Signalled watch key.
+   * @param classesPath    Classes path.
+   * @param changedClasses Set to add the names of the changed classes to.
+   *
+   * @return {@code true} if events were lost.
+   *
+   * @throws IOException If any exceptions happen reading or registering.
+   */
+  private static boolean collect(WatchService watchService, WatchKey key, Path classesPath,
+                                 Set<String> changedClasses) throws IOException {
+    boolean overflow = false;
+    Path directory = (Path) key.watchable();
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+        overflow = true;
+        continue;
+      }
+      Path path = directory.resolve((Path) event.context());
+      if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+        register(watchService, path);
+        try (Stream<Path> classPaths = Utils.classPaths(path, 100)) {
+          changedClasses.addAll(classPaths.map(p -> Utils.className(classesPath, p)).collect(Collectors.toList()));
+        }
+      }
+      else if (Utils.isClass(path)) {
+        changedClasses.add(Utils.className(classesPath, path));
+      }
+      else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE && !path.getFileName().toString().contains(".")) {
+        // A deleted package directory: the classes it contained are unknown
+        overflow = true;
+      }
+    }
+    key.reset();
+    return overflow;
+  }
+
+  /**
+   * Registers a directory and its sub directories with the watch service.
+   *
+   * @param watchService Watch service.
+   * @param directory    Directory to register.
+   *
+   * @throws IOException If any exceptions happen reading or registering.
+   */
+  private static void register(WatchService watchService, Path directory) throws IOException {
+    try (Stream<Path> directories = Files.walk(directory)) {
+      for (Path path : (Iterable<Path>) directories.filter(Files::isDirectory)::iterator) {
+        path.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                      StandardWatchEventKinds.ENTRY_DELETE);
+      }
+    }
+  }
+
+}
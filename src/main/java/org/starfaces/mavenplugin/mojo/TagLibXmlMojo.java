@@ -3,46 +3,322 @@
  */
 package org.starfaces.mavenplugin.mojo;
 
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
 import org.apache.maven.project.MavenProject;
-import org.starfaces.mavenplugin.util.Utils;
+import org.starfaces.mavenplugin.model.FacesLib;
+import org.starfaces.mavenplugin.model.LibComponent;
+import org.starfaces.mavenplugin.output.FreeMarkerRenderer;
+import org.starfaces.mavenplugin.output.OutputCache;
+import org.starfaces.mavenplugin.output.OutputSink;
+import org.starfaces.mavenplugin.output.OutputStatus;
+import org.starfaces.mavenplugin.output.Renderer;
+import org.starfaces.mavenplugin.output.RendererType;
+import org.starfaces.mavenplugin.output.ShardMode;
+import org.starfaces.mavenplugin.output.StaxTagLibRenderer;
 
 /**
  *
  * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
  */
-@Mojo(name = "taglib-xml", requiresDependencyResolution = ResolutionScope.COMPILE)
+@Mojo(name = "taglib-xml", requiresDependencyResolution = ResolutionScope.COMPILE,
+      threadSafe = true)
 public class TagLibXmlMojo extends FacesLibMojo {
 
+  /**
+   * Suffix of taglib file names.
+   */
+  private static final String TAGLIB_XML_SUFFIX = ".taglib.xml";
+
+  /**
+   * Directory in the {@link #getOutputCache() output cache} storing the documented taglib.
+   */
+  private static final String DOCUMENTED_DIR = "documented/";
+
   @Parameter(defaultValue = "${project}", readonly = true, required = true)
   private MavenProject project;
 
   @Parameter(property = "project.compileClasspathElements", required = true, readonly = true)
   private List<String> compileClassPaths;
 
+  /**
+   * Name of the FreeMarker template to process. Looked up in the template directory first (if set) and then in this
+   * plugin's resources.
+   */
+  @Parameter(property = "starfaces.template", defaultValue = "taglib.xml.ftl")
+  private String template;
+
+  /**
+   * Renderer to use. {@code FREEMARKER} processes the {@link #template}, {@code STAX} streams the taglib without using
+   * a template, which is faster and uses less memory for large libraries.
+   */
+  @Parameter(property = "starfaces.renderer", defaultValue = "FREEMARKER")
+  private RendererType renderer;
+
+  /**
+   * How to split the taglib into several files. {@code PACKAGE} writes a taglib per package of the component classes,
+   * {@code PREFIX} per tag name prefix (like {@code data} for {@code dataTable}). The files are named after the taglib
+   * with the package or prefix appended, and all use the same namespace.
+   */
+  @Parameter(property = "starfaces.shardBy", defaultValue = "NONE")
+  private ShardMode shardBy;
+
+  /**
+   * Write the taglib(s) without descriptions and whitespace, which are parsed faster when the application starts. The
+   * documented taglib is written to {@link #documentedTagLibXml}.
+   */
+  @Parameter(property = "starfaces.minify", defaultValue = "false")
+  private boolean minify;
+
+  /**
+   * Name of the FreeMarker template to process when {@link #minify minifying}.
+   */
+  @Parameter(property = "starfaces.minifiedTemplate", defaultValue = "taglib.min.xml.ftl")
+  private String minifiedTemplate;
+
+  /**
+   * Path to write the documented (not minified and not sharded) taglib to when {@link #minify minifying}.
+   */
+  @Parameter(property = "starfaces.documentedTagLibXml",
+             defaultValue = "${project.build.directory}/starfaces/documented.taglib.xml")
+  private File documentedTagLibXml;
+
   @Override
   public void execute() throws MojoExecutionException, MojoFailureException {
     try {
-      try (InputStream stream = Utils.resourceStream("/taglib.xml.ftl")) {
-        // TODO create setting for filename
-        Path tagLibXmlPath = getBuildDirOutPath("META-INF", "TODO.taglib.xml");
-        process(stream, tagLibXmlPath);
-        logProcessed(tagLibXmlPath);
+      List<Path> outputs = readOutputList();
+      if (!outputs.isEmpty() && isUpToDate(outputs.toArray(new Path[0]))) {
+        outputs.forEach(this::logUpToDate);
+        writeReport();
+        return;
+      }
+      OutputCache outputCache = getOutputCache();
+      String cacheKey = outputCache == null
+                        ? null
+                        : getGenerator().getOutputCacheKey(getStatePath().getFileName().toString());
+      Map<Path, OutputStatus> cached = outputCache == null ? null : outputCache.restore(cacheKey, this::getCachedPath);
+      if (cached != null) {
+        cached.forEach((path, status) -> getLog().info(String.format("Restored from output cache (%s): %s",
+                                                                     status.name().toLowerCase(), path)));
+        writeOutputList(cached.keySet());
+        saveFingerprints();
+        getReport().addCounter("outputCacheHits", 1);
+        writeReport();
+        return;
       }
+      Map<Path, OutputStatus> statuses = renderTagLibs();
+      statuses.forEach(this::logProcessed);
+      if (outputCache != null) {
+        Map<String, Path> named = new LinkedHashMap<>();
+        statuses.keySet().forEach(path -> named.put(getCachedName(path), path));
+        outputCache.store(cacheKey, named);
+      }
+      saveState();
+      writeReport();
     }
     catch (IOException ex) {
       throw new MojoExecutionException(ex.getMessage(), ex);
     }
   }
 
+  /**
+   * Returns path of the taglib to generate. When {@link #shardBy sharding}, the shards are written next to it.
+   *
+   * @return Path of the taglib to generate.
+   */
+  protected Path getTagLibXmlPath() {
+    // TODO create setting for filename
+    return getBuildDirOutPath("META-INF", "TODO.taglib.xml");
+  }
+
+  /**
+   * Renders the taglib, or its shards, using the configured {@link #renderer}, and the documented taglib when
+   * {@link #minify minifying}. Taglibs written by the previous generation that are no longer written (like shards
+   * that no longer have components) are deleted.
+   *
+   * @return Whether the taglibs were created, updated or unchanged by path.
+   *
+   * @throws IOException If any exceptions happen rendering or writing.
+   */
+  protected Map<Path, OutputStatus> renderTagLibs() throws IOException {
+    Path tagLibXmlPath = getTagLibXmlPath();
+    FacesLib lib = getFacesLib();
+    Map<Path, OutputStatus> statuses = new LinkedHashMap<>();
+    if (shardBy == ShardMode.NONE) {
+      statuses.put(tagLibXmlPath, renderTagLib(lib, tagLibXmlPath, minify));
+    }
+    else {
+      for (Map.Entry<String, FacesLib> shard : lib.shard(this::getShardKey).entrySet()) {
+        Path shardPath = getShardPath(tagLibXmlPath, shard.getKey());
+        statuses.put(shardPath, renderTagLib(shard.getValue(), shardPath, minify));
+      }
+    }
+    if (minify) {
+      Path documentedPath = documentedTagLibXml.toPath();
+      statuses.put(documentedPath, renderTagLib(lib, documentedPath, false));
+    }
+    writeOutputList(statuses.keySet());
+    return statuses;
+  }
+
+  /**
+   * Renders a taglib using the configured {@link #renderer}.
+   *
+   * @param lib           Model to render.
+   * @param tagLibXmlPath Path to write the taglib to.
+   * @param minified      Whether to leave out descriptions and whitespace.
+   *
+   * @return Whether the taglib was created, updated or unchanged.
+   *
+   * @throws IOException If any exceptions happen rendering or writing.
+   */
+  private OutputStatus renderTagLib(FacesLib lib, Path tagLibXmlPath, boolean minified) throws IOException {
+    Renderer tagLibRenderer = renderer == RendererType.STAX
+                              ? new StaxTagLibRenderer(minified)
+                              : new FreeMarkerRenderer(getGenerator().getFreeMarkerConfiguration(),
+                                                       minified ? minifiedTemplate : template);
+    return getGenerator().render(tagLibRenderer, lib, tagLibXmlPath);
+  }
+
+  /**
+   * Returns the key of the shard a component is written to.
+   *
+   * @param component Component.
+   *
+   * @return Package of the component class or the leading lower case part of the tag name, {@code default} if empty.
+   */
+  private String getShardKey(LibComponent component) {
+    String key;
+    if (shardBy == ShardMode.PACKAGE) {
+      int index = component.getClassName().lastIndexOf('.');
+      key = index < 0 ? "" : component.getClassName().substring(0, index);
+    }
+    else {
+      String name = component.getName();
+      int end = 0;
+      while (end < name.length() && !Character.isUpperCase(name.charAt(end))) {
+        end++;
+      }
+      key = name.substring(0, end);
+    }
+    return key.isEmpty() ? "default" : key;
+  }
+
+  /**
+   * Returns path of a shard: the taglib path with the shard key inserted before {@code .taglib.xml}.
+   *
+   * @param tagLibXmlPath Path of the taglib.
+   * @param key           Shard key.
+   *
+   * @return Path of the shard.
+   */
+  private static Path getShardPath(Path tagLibXmlPath, String key) {
+    String fileName = tagLibXmlPath.getFileName().toString();
+    String baseName = fileName.endsWith(TAGLIB_XML_SUFFIX)
+                      ? fileName.substring(0, fileName.length() - TAGLIB_XML_SUFFIX.length())
+                      : fileName;
+    return tagLibXmlPath.resolveSibling(baseName + '-' + key + TAGLIB_XML_SUFFIX);
+  }
+
+  /**
+   * Returns name of a taglib in the {@link #getOutputCache() output cache}. The documented taglib is stored in a sub
+   * directory, as it can have the same file name as the (minified) taglib.
+   *
+   * @param path Path of the taglib.
+   *
+   * @return Name of the taglib in the output cache.
+   */
+  private String getCachedName(Path path) {
+    String fileName = path.getFileName().toString();
+    return minify && path.equals(documentedTagLibXml.toPath()) ? DOCUMENTED_DIR + fileName : fileName;
+  }
+
+  /**
+   * Returns path to restore a taglib from the {@link #getOutputCache() output cache} to.
+   *
+   * @param name Name of the taglib in the output cache (see {@link #getCachedName(java.nio.file.Path) }).
+   *
+   * @return Path to restore the taglib to.
+   */
+  private Path getCachedPath(String name) {
+    return name.startsWith(DOCUMENTED_DIR) ? documentedTagLibXml.toPath() : getTagLibXmlPath().resolveSibling(name);
+  }
+
+  /**
+   * Returns path of the file listing the taglibs written by the last generation: the
+   * {@link #getStatePath() state path} with {@code .state} replaced by {@code -outputs.lst}.
+   *
+   * @return Path of the file listing the written taglibs.
+   */
+  protected Path getOutputListPath() {
+    Path statePath = getStatePath();
+    return statePath.resolveSibling(statePath.getFileName().toString().replace(".state", "-outputs.lst"));
+  }
+
+  /**
+   * Returns the taglibs written by the last generation.
+   *
+   * @return Paths of the written taglibs, empty if unknown.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  private List<Path> readOutputList() throws IOException {
+    Path listPath = getOutputListPath();
+    if (!Files.isRegularFile(listPath)) {
+      return Collections.emptyList();
+    }
+    return Files.readAllLines(listPath, StandardCharsets.UTF_8).stream()
+            .map(Paths::get)
+            .collect(Collectors.toList());
+  }
+
+  /**
+   * Deletes the taglibs written by the previous generation that were not written by this generation, and stores the
+   * list of written taglibs.
+   *
+   * @param outputs Paths of the taglibs written by this generation.
+   *
+   * @throws IOException If any exceptions happen reading, deleting or writing.
+   */
+  private void writeOutputList(Collection<Path> outputs) throws IOException {
+    for (Path previous : readOutputList()) {
+      if (!outputs.contains(previous) && Files.deleteIfExists(previous)) {
+        getLog().info(String.format("Deleted: %s", previous));
+      }
+    }
+    OutputSink sink = new OutputSink(getOutputListPath());
+    try (Writer writer = sink.newWriter()) {
+      for (Path output : outputs) {
+        writer.write(output.toAbsolutePath().toString());
+        writer.write('\n');
+      }
+    }
+    sink.commit();
+  }
+
+  @Override
+  protected String getOutputSettings() {
+    // Relative, so builds in other directories can share the output cache
+    Path documentedPath = Paths.get(getProject().getBuild().getDirectory()).relativize(documentedTagLibXml.toPath());
+    return template + ' ' + renderer + ' ' + shardBy + ' ' + minify + ' ' + minifiedTemplate + ' ' + documentedPath;
+  }
+
   @Override
   protected MavenProject getProject() {
     return project;
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import org.starfaces.mavenplugin.incremental.ComponentIndex;
+import org.starfaces.mavenplugin.model.FacesLib;
+
+/**
+ * Renders the model as binary {@link ComponentIndex}.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class ComponentIndexRenderer implements Renderer {
+
+  /**
+   * @param facesLib {@inheritDoc }
+   * @param out      {@inheritDoc }
+   *
+   * @throws IOException {@inheritDoc }
+   */
+  @Override
+  public void render(FacesLib facesLib, OutputStream out) throws IOException {
+    ComponentIndex.of(facesLib).write(out);
+  }
+
+}
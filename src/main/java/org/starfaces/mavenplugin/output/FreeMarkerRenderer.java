@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.output;
+
+import freemarker.core.Environment;
+import freemarker.template.Configuration;
+import freemarker.template.TemplateException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import org.starfaces.mavenplugin.model.FacesLib;
+
+/**
+ * Renders a faces library model by processing a FreeMarker template.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class FreeMarkerRenderer implements Renderer {
+
+  /**
+   * FreeMarker configuration to get the template from.
+   */
+  private final Configuration configuration;
+
+  /**
+   * Template name.
+   */
+  private final String template;
+
+  /**
+   * Variables available to the template besides the properties of the model.
+   */
+  private final Map<String, Object> variables;
+
+  /**
+   * Create renderer.
+   *
+   * @param configuration Sets {@link #configuration}.
+   * @param template      Sets {@link #template}.
+   */
+  public FreeMarkerRenderer(Configuration configuration, String template) {
+    this(configuration, template, Collections.emptyMap());
+  }
+
+  /**
+   * Create renderer with variables.
+   *
+   * @param configuration Sets {@link #configuration}.
+   * @param template      Sets {@link #template}.
+   * @param variables     Sets {@link #variables}.
+   */
+  public FreeMarkerRenderer(Configuration configuration, String template, Map<String, Object> variables) {
+    this.configuration = configuration;
+    this.template = template;
+    this.variables = variables;
+  }
+
+  /**
+   * @param facesLib {@inheritDoc }
+   * @param out      {@inheritDoc }
+   *
+   * @throws IOException {@inheritDoc }
+   */
+  @Override
+  public void render(FacesLib facesLib, OutputStream out) throws IOException {
+    Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    render(facesLib, writer);
+    writer.flush();
+  }
+
+  /**
+   * Renders the model to the provided writer.
+   *
+   * @param facesLib Faces library model to render.
+   * @param writer   Writer to write processed template output to.
+   *
+   * @throws IOException If any exceptions happen reading, processing or writing.
+   */
+  public void render(FacesLib facesLib, Writer writer) throws IOException {
+    try {
+      Environment environment = configuration.getTemplate(template).createProcessingEnvironment(facesLib, writer);
+      for (Map.Entry<String, Object> variable : variables.entrySet()) {
+        environment.setVariable(variable.getKey(), configuration.getObjectWrapper().wrap(variable.getValue()));
+      }
+      environment.process();
+    }
+    catch (TemplateException ex) {
+      throw new IOException(ex);
+    }
+  }
+
+  /**
+   * Returns {@link #template}.
+   *
+   * @return {@link #template}.
+   */
+  public String getTemplate() {
+    return template;
+  }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.output;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Content-addressed cache of generated outputs, which can be shared by builds (and build agents). Outputs are stored
+ * by a key fingerprinting all inputs of the generation, so a cached output can be used instead of generating it.
+ * Outputs are written atomically, so concurrent builds can share the cache. A key can hold several outputs, which are
+ * stored by name.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class OutputCache {
+
+  /**
+   * Name of the file listing the names of the outputs stored by a key. It is written after the outputs, so outputs are
+   * only restored once all of them are stored.
+   */
+  private static final String MANIFEST = "outputs.lst";
+
+  /**
+   * Cache directory.
+   */
+  private final Path directory;
+
+  /**
+   * Create cache.
+   *
+   * @param directory Sets {@link #directory}.
+   */
+  public OutputCache(Path directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * Returns path of a cached output. Keys are spread over sub directories named after their first two characters.
+   *
+   * @param key  Key of the inputs.
+   * @param name Name of the output, may contain {@code /} to store outputs with the same file name.
+   *
+   * @return Path of the cached output.
+   */
+  private Path cachedPath(String key, String name) {
+    return directory.resolve(key.substring(0, 2)).resolve(key).resolve(name);
+  }
+
+  /**
+   * Copies the cached outputs to their destinations (if their content differs).
+   *
+   * @param key          Key of the inputs.
+   * @param destinations Returns the destination of an output by its name.
+   *
+   * @return Whether the destinations were created, updated or unchanged by destination, or {@code null} if the outputs
+   *         are not cached.
+   *
+   * @throws IOException If any exceptions happen reading or writing.
+   */
+  public Map<Path, OutputStatus> restore(String key, Function<String, Path> destinations) throws IOException {
+    Path manifest = cachedPath(key, MANIFEST);
+    if (!Files.isRegularFile(manifest)) {
+      return null;
+    }
+    Map<Path, OutputStatus> restored = new LinkedHashMap<>();
+    for (String name : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+      Path destination = destinations.apply(name);
+      OutputSink sink = new OutputSink(destination);
+      Files.copy(cachedPath(key, name), sink.getOutputStream());
+      restored.put(destination, sink.commit());
+    }
+    return restored;
+  }
+
+  /**
+   * Stores generated outputs in the cache.
+   *
+   * @param key     Key of the inputs.
+   * @param outputs Paths the outputs were generated to by output name.
+   *
+   * @throws IOException If any exceptions happen reading or writing.
+   */
+  public void store(String key, Map<String, Path> outputs) throws IOException {
+    for (Map.Entry<String, Path> output : outputs.entrySet()) {
+      OutputSink sink = new OutputSink(cachedPath(key, output.getKey()));
+      Files.copy(output.getValue(), sink.getOutputStream());
+      sink.commit();
+    }
+    OutputSink sink = new OutputSink(cachedPath(key, MANIFEST));
+    sink.getOutputStream().write(String.join("\n", outputs.keySet()).getBytes(StandardCharsets.UTF_8));
+    sink.commit();
+  }
+
+  /**
+   * Returns {@link #directory}.
+   *
+   * @return {@link #directory}.
+   */
+  public Path getDirectory() {
+    return directory;
+  }
+
+}
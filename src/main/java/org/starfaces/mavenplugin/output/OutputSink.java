@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.output;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import org.starfaces.mavenplugin.util.Utils;
+
+/**
+ * Output sink which buffers the output while computing its digest. On {@link #commit() } the destination is only
+ * written when its content differs, using a temporary file and an atomic move, so unchanged files keep their
+ * modification time.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class OutputSink {
+
+  /**
+   * Digest algorithm.
+   */
+  private static final String ALGORITHM = "SHA-256";
+
+  /**
+   * Destination file.
+   */
+  private final Path destination;
+
+  /**
+   * Buffered output.
+   */
+  private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+
+  /**
+   * Digest of the output.
+   */
+  private final MessageDigest digest = newDigest();
+
+  /**
+   * Digesting stream writing to the {@link #buffer}.
+   */
+  private final OutputStream stream = new DigestOutputStream(buffer, digest);
+
+  /**
+   * Create sink.
+   *
+   * @param destination Sets {@link #destination}.
+   */
+  public OutputSink(Path destination) {
+    this.destination = destination;
+  }
+
+  /**
+   * Returns {@link #destination}.
+   *
+   * @return {@link #destination}.
+   */
+  public Path getDestination() {
+    return destination;
+  }
+
+  /**
+   * Returns stream to write output bytes to.
+   *
+   * @return Stream to write output bytes to.
+   */
+  public OutputStream getOutputStream() {
+    return stream;
+  }
+
+  /**
+   * Returns new UTF-8 writer to write output to. Flush the writer before calling {@link #commit() }.
+   *
+   * @return New UTF-8 writer to write output to.
+   */
+  public Writer newWriter() {
+    return new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Returns number of bytes written so far.
+   *
+   * @return Number of bytes written so far.
+   */
+  public int size() {
+    return buffer.size();
+  }
+
+  /**
+   * Writes the output to the {@link #destination} if it does not exist or has different content.
+   *
+   * @return Whether the destination was created, updated or unchanged.
+   *
+   * @throws IOException If any exceptions happen reading or writing.
+   */
+  public OutputStatus commit() throws IOException {
+    byte[] outputDigest = digest.digest();
+    boolean exists = Files.isRegularFile(destination);
+    if (exists && Files.size(destination) == buffer.size() && Arrays.equals(outputDigest, fileDigest())) {
+      return OutputStatus.UNCHANGED;
+    }
+    Path parent = destination.toAbsolutePath().getParent();
+    Files.createDirectories(parent);
+    Path temp = Files.createTempFile(parent, destination.getFileName().toString(), ".tmp");
+    try {
+      try (OutputStream out = Files.newOutputStream(temp)) {
+        buffer.writeTo(out);
+      }
+      Utils.moveAtomically(temp, destination);
+    }
+    finally {
+      Files.deleteIfExists(temp);
+    }
+    return exists ? OutputStatus.UPDATED : OutputStatus.CREATED;
+  }
+
+  /**
+   * Returns digest of the current {@link #destination} contents.
+   *
+   * @return Digest of the current {@link #destination} contents.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  private byte[] fileDigest() throws IOException {
+    MessageDigest fileDigest = newDigest();
+    try (InputStream in = new DigestInputStream(Files.newInputStream(destination), fileDigest)) {
+      byte[] bytes = new byte[8192];
+      while (in.read(bytes) != -1) {
+        // digesting
+      }
+    }
+    return fileDigest.digest();
+  }
+
+  /**
+   * Returns new message digest.
+   *
+   * @return New message digest.
+   */
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance(ALGORITHM);
+    }
+    catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.output;
+
+/**
+ * Result of committing an {@link OutputSink}.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public enum OutputStatus {
+
+  /**
+   * The file did not exist and was created.
+   */
+  CREATED,
+
+  /**
+   * The file existed with different content and was replaced.
+   */
+  UPDATED,
+
+  /**
+   * The file existed with the same content and was not touched.
+   */
+  UNCHANGED
+
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import org.starfaces.mavenplugin.model.FacesLib;
+
+/**
+ * Renders a faces library model.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public interface Renderer {
+
+  /**
+   * Renders the model as UTF-8 to the provided stream. The stream is not closed.
+   *
+   * @param facesLib Faces library model to render.
+   * @param out      Stream to write to.
+   *
+   * @throws IOException If any exceptions happen rendering or writing.
+   */
+  void render(FacesLib facesLib, OutputStream out) throws IOException;
+
+}
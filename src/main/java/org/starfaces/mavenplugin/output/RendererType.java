@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.output;
+
+/**
+ * Renderer used to generate an output.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public enum RendererType {
+
+  /**
+   * Process a FreeMarker template using {@link FreeMarkerRenderer}.
+   */
+  FREEMARKER,
+
+  /**
+   * Stream the taglib using {@link StaxTagLibRenderer}. Ignores the template.
+   */
+  STAX,
+
+  /**
+   * Write a binary component index using {@link ComponentIndexRenderer}. Ignores the template.
+   */
+  COMPONENT_INDEX
+
+}
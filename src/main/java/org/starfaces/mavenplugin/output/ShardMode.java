@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.output;
+
+/**
+ * How the taglib is split into several files.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public enum ShardMode {
+
+  /**
+   * Write a single taglib.
+   */
+  NONE,
+
+  /**
+   * Write a taglib per package of the component classes.
+   */
+  PACKAGE,
+
+  /**
+   * Write a taglib per tag name prefix: the leading lower case part of the tag name, for example {@code data} for
+   * {@code dataTable}.
+   */
+  PREFIX
+
+}
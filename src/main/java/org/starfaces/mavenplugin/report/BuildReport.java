@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.report;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.starfaces.mavenplugin.output.OutputStatus;
+
+/**
+ * Timings and counters of a single execution, written as JSON. Phases are accumulated in nanoseconds; phases running
+ * in parallel threads (like discovery and resolution) add up the time of all threads, so they can exceed the wall
+ * clock time of the phase containing them. All methods are thread safe.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class BuildReport {
+
+  /**
+   * Goal the report is for.
+   */
+  private final String goal;
+
+  /**
+   * Phase durations in nanoseconds by phase name, in order of first occurrence.
+   */
+  private final Map<String, Long> phases = new LinkedHashMap<>();
+
+  /**
+   * Counters by name, in order of first occurrence.
+   */
+  private final Map<String, Long> counters = new LinkedHashMap<>();
+
+  /**
+   * Written outputs.
+   */
+  private final List<String> outputs = new ArrayList<>();
+
+  /**
+   * Most expensive components: class name and nanoseconds, most expensive first.
+   */
+  private List<Map.Entry<String, Long>> expensiveComponents = Collections.emptyList();
+
+  /**
+   * Create report.
+   *
+   * @param goal Sets {@link #goal}.
+   */
+  public BuildReport(String goal) {
+    this.goal = goal;
+  }
+
+  /**
+   * Adds time to a phase.
+   *
+   * @param phase Phase name.
+   * @param nanos Time in nanoseconds.
+   */
+  public synchronized void addPhase(String phase, long nanos) {
+    phases.merge(phase, nanos, Long::sum);
+  }
+
+  /**
+   * Adds time since the provided start time to a phase.
+   *
+   * @param phase Phase name.
+   * @param start Start time as returned by {@link System#nanoTime()}.
+   */
+  public void endPhase(String phase, long start) {
+    addPhase(phase, System.nanoTime() - start);
+  }
+
+  /**
+   * Adds to a counter.
+   *
+   * @param counter Counter name.
+   * @param value   Value to add.
+   */
+  public synchronized void addCounter(String counter, long value) {
+    counters.merge(counter, value, Long::sum);
+  }
+
+  /**
+   * Adds written output.
+   *
+   * @param path   Path of the output.
+   * @param status Whether the output was created, updated or unchanged.
+   * @param bytes  Size of the output in bytes.
+   */
+  public synchronized void addOutput(Path path, OutputStatus status, long bytes) {
+    outputs.add(String.format("{\"path\": %s, \"status\": %s, \"bytes\": %d}",
+                              quote(path.toString()), quote(status.name().toLowerCase()), bytes));
+    addCounter("bytesWritten", status == OutputStatus.UNCHANGED ? 0 : bytes);
+  }
+
+  /**
+   * Adds components to the most expensive components, keeping the most expensive ones. A component added more than
+   * once keeps its highest time.
+   *
+   * @param nanosByClassName Nanoseconds spent per component class name.
+   * @param limit            Maximum number of components to keep.
+   */
+  public synchronized void addExpensiveComponents(Map<String, Long> nanosByClassName, int limit) {
+    Map<String, Long> merged = new HashMap<>(nanosByClassName);
+    expensiveComponents.forEach(e -> merged.merge(e.getKey(), e.getValue(), Math::max));
+    expensiveComponents = merged.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+            .limit(limit)
+            .map(e -> new AbstractMap.SimpleImmutableEntry<>(e.getKey(), e.getValue()))
+            .collect(Collectors.toList());
+  }
+
+  /**
+   * Returns the duration of a phase in milliseconds.
+   *
+   * @param phase Phase name.
+   *
+   * @return Duration of the phase in milliseconds or {@code -1} if the phase did not run.
+   */
+  public synchronized long getPhaseMillis(String phase) {
+    Long nanos = phases.get(phase);
+    return nanos == null ? -1 : nanos / 1_000_000;
+  }
+
+  /**
+   * Returns the report as JSON.
+   *
+   * @return Report as JSON.
+   */
+  public synchronized String toJson() {
+    StringBuilder json = new StringBuilder("{\n");
+    json.append("  \"goal\": ").append(quote(goal)).append(",\n");
+    json.append("  \"phasesMillis\": {");
+    appendEntries(json, phases.entrySet().stream()
+            .map(e -> quote(e.getKey()) + ": " + e.getValue() / 1_000_000)
+            .collect(Collectors.toList()));
+    json.append("},\n");
+    json.append("  \"counters\": {");
+    appendEntries(json, counters.entrySet().stream()
+            .map(e -> quote(e.getKey()) + ": " + e.getValue())
+            .collect(Collectors.toList()));
+    json.append("},\n");
+    json.append("  \"outputs\": [");
+    appendEntries(json, outputs);
+    json.append("],\n");
+    json.append("  \"expensiveComponents\": [");
+    appendEntries(json, expensiveComponents.stream()
+            .map(e -> String.format("{\"className\": %s, \"micros\": %d}", quote(e.getKey()), e.getValue() / 1000))
+            .collect(Collectors.toList()));
+    json.append("]\n}\n");
+    return json.toString();
+  }
+
+  /**
+   * Appends entries, one per line.
+   *
+   * @param json    JSON to append to.
+   * @param entries Entries to append.
+   */
+  private static void appendEntries(StringBuilder json, List<String> entries) {
+    if (entries.isEmpty()) {
+      return;
+    }
+    json.append("\n    ").append(String.join(",\n    ", entries)).append("\n  ");
+  }
+
+  /**
+   * Returns string as quoted JSON string.
+   *
+   * @param string String to quote.
+   *
+   * @return Quoted JSON string.
+   */
+  private static String quote(String string) {
+    StringBuilder quoted = new StringBuilder("\"");
+    for (char c : string.toCharArray()) {
+      if (c == '"' || c == '\\') {
+        quoted.append('\\').append(c);
+      }
+      else if (c < ' ') {
+        quoted.append(String.format("\\u%04x", (int) c));
+      }
+      else {
+        quoted.append(c);
+      }
+    }
+    return quoted.append('"').toString();
+  }
+
+  /**
+   * Writes the report as JSON, creating parent directories if needed.
+   *
+   * @param file File to write to.
+   *
+   * @throws IOException If any exceptions happen writing.
+   */
+  public void write(Path file) throws IOException {
+    Files.createDirectories(file.getParent());
+    Files.write(file, toJson().getBytes(StandardCharsets.UTF_8));
+  }
+
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Filter on package names using include and exclude patterns. A pattern is a package name matching that package and
+ * all of its sub packages; a {@code *} segment matches any single package name, for example
+ * {@code com.example.*.model}. A package is scanned if it matches an include pattern (or there are no include
+ * patterns) and no exclude pattern. The filter can also tell whether a package can contain scanned sub packages, so
+ * directory walks can skip whole sub trees.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class PackageFilter {
+
+  /**
+   * Filter accepting all packages.
+   */
+  public static final PackageFilter ALL = new PackageFilter(null, null);
+
+  /**
+   * Include patterns split into package name segments.
+   */
+  private final List<String[]> includes;
+
+  /**
+   * Exclude patterns split into package name segments.
+   */
+  private final List<String[]> excludes;
+
+  /**
+   * Create filter.
+   *
+   * @param includes Include patterns, {@code null} or empty to include all packages.
+   * @param excludes Exclude patterns, {@code null} or empty to exclude no packages.
+   */
+  public PackageFilter(List<String> includes, List<String> excludes) {
+    this.includes = split(includes);
+    this.excludes = split(excludes);
+  }
+
+  /**
+   * Returns patterns split into package name segments.
+   *
+   * @param patterns Patterns to split, may be {@code null}.
+   *
+   * @return Patterns split into package name segments.
+   */
+  private static List<String[]> split(List<String> patterns) {
+    if (patterns == null) {
+      return Collections.emptyList();
+    }
+    List<String[]> split = new ArrayList<>();
+    for (String pattern : patterns) {
+      if (pattern != null && !pattern.trim().isEmpty()) {
+        split.add(pattern.trim().split("\\."));
+      }
+    }
+    return split;
+  }
+
+  /**
+   * Returns {@code true} if the classes in a package should be scanned.
+   *
+   * @param packageName Package name, empty for the default package.
+   *
+   * @return {@code true} if the classes in the package should be scanned.
+   */
+  public boolean includes(String packageName) {
+    String[] segments = segments(packageName);
+    return (includes.isEmpty() || includes.stream().anyMatch(p -> matches(p, segments)))
+           && excludes.stream().noneMatch(p -> matches(p, segments));
+  }
+
+  /**
+   * Returns {@code true} if a class should be scanned, based on its package.
+   *
+   * @param className Fully qualified class name.
+   *
+   * @return {@code true} if the class should be scanned.
+   */
+  public boolean includesClass(String className) {
+    int index = className.lastIndexOf('.');
+    return includes(index < 0 ? "" : className.substring(0, index));
+  }
+
+  /**
+   * Returns {@code true} if a package or any of its sub packages can be scanned, so a directory walk should descend
+   * into its directory.
+   *
+   * @param packageName Package name, empty for the default package.
+   *
+   * @return {@code true} if the package or any of its sub packages can be scanned.
+   */
+  public boolean descends(String packageName) {
+    String[] segments = segments(packageName);
+    if (excludes.stream().anyMatch(p -> matches(p, segments))) {
+      return false;
+    }
+    return includes.isEmpty() || includes.stream().anyMatch(p -> matches(p, segments) || isAncestor(segments, p));
+  }
+
+  /**
+   * Returns {@code true} if this filter accepts all packages.
+   *
+   * @return {@code true} if this filter accepts all packages.
+   */
+  public boolean isAll() {
+    return includes.isEmpty() && excludes.isEmpty();
+  }
+
+  /**
+   * Returns package name split into segments.
+   *
+   * @param packageName Package name, empty for the default package.
+   *
+   * @return Package name segments.
+   */
+  private static String[] segments(String packageName) {
+    return packageName.isEmpty() ? new String[0] : packageName.split("\\.");
+  }
+
+  /**
+   * Returns {@code true} if the package is the pattern's package or one of its sub packages.
+   *
+   * @param pattern  Pattern segments.
+   * @param segments Package segments.
+   *
+   * @return {@code true} if the package matches the pattern.
+   */
+  private static boolean matches(String[] pattern, String[] segments) {
+    return segments.length >= pattern.length && prefixMatches(pattern, segments, pattern.length);
+  }
+
+  /**
+   * Returns {@code true} if the package is a parent package of packages matching the pattern.
+   *
+   * @param segments Package segments.
+   * @param pattern  Pattern segments.
+   *
+   * @return {@code true} if the package is a parent of the pattern.
+   */
+  private static boolean isAncestor(String[] segments, String[] pattern) {
+    return segments.length < pattern.length && prefixMatches(pattern, segments, segments.length);
+  }
+
+  /**
+   * Returns {@code true} if the first segments of the package match the first segments of the pattern.
+   *
+   * @param pattern  Pattern segments.
+   * @param segments Package segments.
+   * @param length   Number of segments to compare.
+   *
+   * @return {@code true} if the first segments match.
+   */
+  private static boolean prefixMatches(String[] pattern, String[] segments, int length) {
+    for (int i = 0; i < length; i++) {
+      if (!"*".equals(pattern[i]) && !pattern[i].equals(segments[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return {@inheritDoc }
+   */
+  @Override
+  public String toString() {
+    return "PackageFilter{" + "includes=" + join(includes) + ", excludes=" + join(excludes) + '}';
+  }
+
+  /**
+   * Returns patterns joined for {@link #toString()}.
+   *
+   * @param patterns Patterns split into segments.
+   *
+   * @return Joined patterns.
+   */
+  private static String join(List<String[]> patterns) {
+    List<String> joined = new ArrayList<>();
+    patterns.forEach(p -> joined.add(String.join(".", p)));
+    return joined.toString();
+  }
+
+}
@@ -6,14 +6,35 @@ package org.starfaces.mavenplugin.util;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.Field;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import org.starfaces.annotations.Attribute;
 
 /**
@@ -23,6 +44,11 @@ import org.starfaces.annotations.Attribute;
  */
 public final class Utils {
 
+  /**
+   * Suffix of the nested enumeration holding component property keys.
+   */
+  public static final String PROPERTY_KEYS_SUFFIX = "$PropertyKeys";
+
   /**
    * Hide public constructor.
    */
@@ -73,10 +99,177 @@ public final class Utils {
    * @throws IOException If an I/O error is thrown when accessing provided path.
    */
   public static Stream<String> classNames(Path path, int maxDepth) throws IOException {
-    return Files.find(path, maxDepth, (p, a) -> Utils.isClass(p))
+    return classNames(path, maxDepth, PackageFilter.ALL);
+  }
+
+  /**
+   * Returns class names in path, skipping packages not accepted by the filter.
+   *
+   * @param path     Path to get class names from.
+   * @param maxDepth the maximum number of directory levels to search.
+   * @param filter   Package filter.
+   *
+   * @return Class names in path.
+   *
+   * @throws IOException If an I/O error is thrown when accessing provided path.
+   */
+  public static Stream<String> classNames(Path path, int maxDepth, PackageFilter filter) throws IOException {
+    return classPaths(path, maxDepth, filter)
             .map(p -> Utils.className(path, p));
   }
 
+  /**
+   * Returns class file paths in path. Directories are listed in parallel, so the returned stream is parallel. Run it
+   * in a {@link ForkJoinPool} (see {@link #inPool(int, java.util.concurrent.Callable) }) to control the parallelism.
+   *
+   * @param path     Path to get class file paths from.
+   * @param maxDepth the maximum number of directory levels to search.
+   *
+   * @return Class file paths in path.
+   *
+   * @throws IOException If an I/O error is thrown when accessing provided path.
+   */
+  public static Stream<Path> classPaths(Path path, int maxDepth) throws IOException {
+    return classPaths(path, maxDepth, PackageFilter.ALL);
+  }
+
+  /**
+   * Returns class file paths in path, skipping packages not accepted by the filter. Directories of packages that
+   * cannot contain accepted packages are not listed at all.
+   *
+   * @param path     Path to get class file paths from.
+   * @param maxDepth the maximum number of directory levels to search.
+   * @param filter   Package filter.
+   *
+   * @return Class file paths in path.
+   *
+   * @throws IOException If an I/O error is thrown when accessing provided path.
+   */
+  public static Stream<Path> classPaths(Path path, int maxDepth, PackageFilter filter) throws IOException {
+    if (!Files.isDirectory(path)) {
+      throw new NoSuchFileException(path.toString());
+    }
+    // The supplier is called by the terminal operation, so the directories are listed in the pool running it
+    return StreamSupport.stream(() -> listClassPaths(path, maxDepth, filter).spliterator(),
+                                Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED, true);
+  }
+
+  /**
+   * Walks the directory tree level by level, listing all directories of a level in parallel, as long as the depth and
+   * the filter allow it.
+   *
+   * @param path     Path to get class file paths from.
+   * @param maxDepth the maximum number of directory levels to search.
+   * @param filter   Package filter.
+   *
+   * @return Class file paths in path, sorted.
+   */
+  private static List<Path> listClassPaths(Path path, int maxDepth, PackageFilter filter) {
+    Queue<Path> classPaths = new ConcurrentLinkedQueue<>();
+    List<Path> directories = Collections.singletonList(path);
+    for (int depth = maxDepth; !directories.isEmpty(); depth--) {
+      boolean descend = depth > 1;
+      directories = directories.parallelStream()
+              .flatMap(d -> listDirectory(path, d, descend, filter, classPaths::add).stream())
+              .collect(Collectors.toList());
+    }
+    List<Path> sorted = new ArrayList<>(classPaths);
+    Collections.sort(sorted);
+    return sorted;
+  }
+
+  /**
+   * Lists directory, passing the class files of an accepted package to the consumer.
+   *
+   * @param path      Base path, the directory of the default package.
+   * @param directory Directory to list.
+   * @param descend   Whether to return sub directories.
+   * @param filter    Package filter.
+   * @param classPath Consumes class file paths.
+   *
+   * @return Sub directories that can contain accepted packages, if descending.
+   */
+  private static List<Path> listDirectory(Path path, Path directory, boolean descend, PackageFilter filter,
+                                          Consumer<Path> classPath) {
+    String packageName = path.relativize(directory).toString().replace(File.separatorChar, '.');
+    boolean includeClasses = filter.includes(packageName);
+    List<Path> subDirectories = new ArrayList<>();
+    try (Stream<Path> children = Files.list(directory)) {
+      for (Path child : (Iterable<Path>) children::iterator) {
+        if (Files.isDirectory(child)) {
+          String childPackage = packageName.isEmpty()
+                                ? child.getFileName().toString()
+                                : packageName + '.' + child.getFileName();
+          if (descend && filter.descends(childPackage)) {
+            subDirectories.add(child);
+          }
+        }
+        else if (includeClasses && isClass(child)) {
+          classPath.accept(child);
+        }
+      }
+    }
+    catch (IOException ex) {
+      throw new IllegalStateException(ex);
+    }
+    return subDirectories;
+  }
+
+  /**
+   * Returns names of the classes in a jar file. Only the central directory of the jar is read, entries in
+   * {@code META-INF} (like multi-release versions) are skipped.
+   *
+   * @param jar Jar file to get class names from.
+   *
+   * @return Class names in jar file.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  public static List<String> jarClassNames(Path jar) throws IOException {
+    try (ZipFile zip = new ZipFile(jar.toFile())) {
+      return zip.stream()
+              .map(ZipEntry::getName)
+              .filter(n -> n.endsWith(".class") && !n.startsWith("META-INF/"))
+              .map(n -> n.substring(0, n.length() - 6).replace('/', '.'))
+              .collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * Runs task in a new {@link ForkJoinPool} with the provided parallelism, so parallel streams used by the task use
+   * that parallelism. The pool is shut down when the task is done.
+   *
+   * @param <T>         Type of result.
+   * @param parallelism Parallelism level (number of threads).
+   * @param task        Task to run.
+   *
+   * @return Result of the task.
+   *
+   * @throws IOException If the task throws an I/O exception.
+   */
+  public static <T> T inPool(int parallelism, Callable<T> task) throws IOException {
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      return pool.submit(task).get();
+    }
+    catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(ex);
+    }
+    catch (ExecutionException ex) {
+      if (ex.getCause() instanceof IOException) {
+        throw (IOException) ex.getCause();
+      }
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw new IllegalStateException(ex.getCause());
+    }
+    finally {
+      pool.shutdown();
+    }
+  }
+
   /**
    * Returns the first object that is not {@code null} or the last object.
    *
@@ -90,6 +283,108 @@ public final class Utils {
     return object1 == null ? object2 : object1;
   }
 
+  /**
+   * Returns hexadecimal SHA-256 hash of bytes.
+   *
+   * @param bytes Bytes to hash.
+   *
+   * @return Hexadecimal SHA-256 hash of bytes.
+   */
+  public static String hash(byte[] bytes) {
+    return toHex(newDigest().digest(bytes));
+  }
+
+  /**
+   * Returns hexadecimal SHA-256 hash of the contents of a file. The file is streamed, so it is not loaded in memory.
+   *
+   * @param file File to hash.
+   *
+   * @return Hexadecimal SHA-256 hash of the contents of the file.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  public static String hash(Path file) throws IOException {
+    MessageDigest digest = newDigest();
+    byte[] buffer = new byte[8192];
+    try (InputStream in = Files.newInputStream(file)) {
+      for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+        digest.update(buffer, 0, read);
+      }
+    }
+    return toHex(digest.digest());
+  }
+
+  /**
+   * Returns new SHA-256 message digest.
+   *
+   * @return New SHA-256 message digest.
+   */
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    }
+    catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  /**
+   * Returns hexadecimal representation of bytes.
+   *
+   * @param bytes Bytes.
+   *
+   * @return Hexadecimal representation of bytes.
+   */
+  private static String toHex(byte[] bytes) {
+    StringBuilder hex = new StringBuilder();
+    for (byte b : bytes) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
+
+  /**
+   * Returns hexadecimal SHA-256 hash of the UTF-8 bytes of a string.
+   *
+   * @param string String to hash.
+   *
+   * @return Hexadecimal SHA-256 hash of string.
+   */
+  public static String hash(String string) {
+    return hash(string.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Returns size and modification time of a file followed by a new line.
+   *
+   * @param file File to stamp.
+   *
+   * @return Size and modification time of a file followed by a new line.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  public static String fileStamp(Path file) throws IOException {
+    return Files.size(file) + " " + Files.getLastModifiedTime(file).toMillis() + "\n";
+  }
+
+  /**
+   * Moves a file written next to the target into place, replacing the target. The move is atomic where the file system
+   * supports it, so the target is never left partially written by an interrupted or concurrent build.
+   *
+   * @param source File to move, in the same directory as the target.
+   * @param target File to replace.
+   *
+   * @throws IOException If any exceptions happen moving.
+   */
+  public static void moveAtomically(Path source, Path target) throws IOException {
+    try {
+      Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+    catch (AtomicMoveNotSupportedException ex) {
+      Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
   /**
    * Returns {@code true} if path is a Java class.
    *
@@ -143,12 +438,12 @@ public final class Utils {
    */
   public static Map<String, Attribute> propertyKeys(ClassLoader classLoader, Class<?> clss) {
     try {
-      Class<?> propertyKeys = classLoader.loadClass(clss.getName() + "$PropertyKeys");
+      Class<?> propertyKeys = classLoader.loadClass(clss.getName() + PROPERTY_KEYS_SUFFIX);
       Map<String, Attribute> map = new HashMap<>();
-      for (Enum<?> property : (Enum[]) propertyKeys.getEnumConstants()) {
-        Attribute attribute = propertyKeyAttribute(propertyKeys, property);
+      for (Field field : propertyKeys.getFields()) {
+        Attribute attribute = field.isEnumConstant() ? field.getAnnotation(Attribute.class) : null;
         if (attribute != null) {
-          map.put(property.name(), attribute);
+          map.put(field.getName(), attribute);
         }
       }
       return map;
@@ -158,26 +453,6 @@ public final class Utils {
     }
   }
 
-  /**
-   * Returns attribute annotation from attribute enumeration entry or {@code null} if not found.
-   *
-   * @param propertyKeys  Property keys enumeration.
-   * @param attributeName Attribute name (enumeration entry) to read annotation from.
-   *
-   * @return Attribute annotation from attribute enumeration entry or {@code null} if not found.
-   */
-  private static Attribute propertyKeyAttribute(Class<?> propertyKeys, Enum<?> attributeName) {
-    try {
-      return propertyKeys.getField(attributeName.name()).getAnnotation(Attribute.class);
-    }
-    catch (NoSuchFieldException ex) {
-      return null;
-    }
-    catch (SecurityException ex) {
-      throw new IllegalStateException(ex);
-    }
-  }
-
   /**
    * Returns input stream of resource.
    *
@@ -0,0 +1,25 @@
+{
+  "$schema": "http://json-schema.org/draft-07/schema#",
+  "$id": "${pluginConfig.getChild('namespace').value?json_string}",
+  "title": "${pluginConfig.getChild('shortName').value?json_string}",
+  "description": "${pluginConfig.getChild('description').value?json_string}",
+  "definitions": {
+  <#list components as component>
+    <#assign required = []>
+    "${component.name?json_string}": {
+      "description": "${(component.description!)?json_string}",
+      "type": "object",
+      "properties": {
+      <#list component.attributes as attribute>
+        <#if attribute.required><#assign required = required + [attribute.name]></#if>
+        "${attribute.name?json_string}": {
+          "description": "${(attribute.description!)?json_string}",
+          "javaType": "${attribute.type?json_string}"
+        }<#sep>,</#sep>
+      </#list>
+      },
+      "required": [<#list required as name>"${name?json_string}"<#sep>, </#sep></#list>]
+    }<#sep>,</#sep>
+  </#list>
+  }
+}
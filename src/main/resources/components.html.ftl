@@ -0,0 +1,25 @@
+<!DOCTYPE html>
+<html>
+<head>
+  <meta charset="UTF-8">
+  <title>${pluginConfig.getChild('shortName').value?html}</title>
+</head>
+<body>
+  <h1>${pluginConfig.getChild('shortName').value?html}</h1>
+  <p>${pluginConfig.getChild('description').value?html}</p>
+  <p>Namespace: <code>${pluginConfig.getChild('namespace').value?html}</code></p>
+  <#list components as component>
+
+  <h2 id="${component.name?html}">${component.name?html}</h2>
+  <p>${(component.description!)?html}</p>
+  <p>Component type: <code>${component.type?html}</code>, class: <code>${component.className?html}</code></p>
+  <table>
+    <tr><th>Attribute</th><th>Type</th><th>Required</th><th>Description</th></tr>
+    <#list component.attributes as attribute>
+    <tr><td>${attribute.name?html}</td><td><code>${attribute.type?html}</code></td><td>${attribute.required?c}</td><td>${(attribute.description!)?html}</td></tr>
+    </#list>
+  </table>
+  </#list>
+
+</body>
+</html>
@@ -0,0 +1,21 @@
+# ${pluginConfig.getChild('shortName').value}
+
+${pluginConfig.getChild('description').value}
+
+Namespace: `${pluginConfig.getChild('namespace').value}`
+<#list components as component>
+
+## ${component.name}
+<#if component.description??>
+
+${component.description}
+</#if>
+
+Component type: `${component.type}`, class: `${component.className}`
+
+| Attribute | Type | Required | Description |
+|-----------|------|----------|-------------|
+<#list component.attributes as attribute>
+| ${attribute.name} | `${attribute.type}` | ${attribute.required?c} | ${(attribute.description!)?replace('|', '\\|')?replace('\n', ' ')} |
+</#list>
+</#list>
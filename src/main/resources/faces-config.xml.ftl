@@ -0,0 +1,18 @@
+<?xml version="1.0" encoding="UTF-8"?>
+<faces-config
+  xmlns="http://xmlns.jcp.org/xml/ns/javaee"
+  xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+  xsi:schemaLocation="http://xmlns.jcp.org/xml/ns/javaee http://xmlns.jcp.org/xml/ns/javaee/web-facesconfig_2_3.xsd"
+  version="2.3">
+  <#list components as component>
+
+  <component>
+    <#if component.description??>
+    <description><![CDATA[${component.description}]]></description>
+    </#if>
+    <component-type>${component.type}</component-type>
+    <component-class>${component.className}</component-class>
+  </component>
+  </#list>
+
+</faces-config>
@@ -0,0 +1,240 @@
+<#--
+  Java source of a registry of the tag library, processed by the registry goal, which provides packageName, className,
+  chunkSize, attributeCount, attributeChunks (the distinct attributes of all components as "name type required"
+  entries, in chunks that fit a string constant) and attributeIndexes (per component the indexes of its attributes,
+  separated by commas). Every distinct attribute is created once, by decoding the entries, which is a lot faster than
+  running code per attribute. Tags are added by nested classes of chunkSize tags each, so large libraries stay within
+  the limits of a class file.
+-->
+<#assign namespace = (pluginConfig.getChild('namespace').value)!''>
+<#assign shortName = (pluginConfig.getChild('shortName').value)!''>
+<#assign tagChunks = components?chunk(chunkSize)>
+<#if packageName?has_content>
+package ${packageName};
+
+</#if>
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of the tags of {@code ${namespace}}, generated by the StarFaces Maven plugin. It holds the same tags as the
+ * taglib, so they can be registered at startup without parsing XML. It is a plain data holder: nothing registers it
+ * with JSF, the application has to register the tags itself.
+ */
+public final class ${className} {
+
+  /**
+   * Namespace of the tag library.
+   */
+  public static final String NAMESPACE = "${namespace?j_string}";
+
+  /**
+   * Short name of the tag library.
+   */
+  public static final String SHORT_NAME = "${shortName?j_string}";
+
+  /**
+   * Distinct attributes of all tags.
+   */
+  private static final Attribute[] ATTRIBUTES = new Attribute[${attributeCount?c}];
+
+  /**
+   * Tags by tag name, in tag name order.
+   */
+  private static final Map<String, Tag> TAGS;
+
+  static {
+    int index = 0;
+<#list attributeChunks as chunk>
+    index = attributes(index, ""
+  <#list chunk as entry>
+            + "${entry?j_string},"
+  </#list>
+    );
+</#list>
+    Map<String, Tag> tags = new LinkedHashMap<>();
+<#list tagChunks as chunk>
+    Tags${chunk?index}.add(tags);
+</#list>
+    TAGS = Collections.unmodifiableMap(tags);
+  }
+
+  private ${className}() {
+  }
+
+  /**
+   * Returns all tags by tag name, in tag name order.
+   *
+   * @return All tags by tag name.
+   */
+  public static Map<String, Tag> getTags() {
+    return TAGS;
+  }
+
+  /**
+   * Returns tag or {@code null} if there is no tag with the name.
+   *
+   * @param name Tag name.
+   *
+   * @return Tag or {@code null}.
+   */
+  public static Tag getTag(String name) {
+    return TAGS.get(name);
+  }
+
+  /**
+   * Adds attributes to {@link #ATTRIBUTES}.
+   *
+   * @param index First index to add attributes at.
+   * @param data  Attributes as {@code name type required} entries, each followed by a comma.
+   *
+   * @return Index to add the next attributes at.
+   */
+  private static int attributes(int index, String data) {
+    int start = 0;
+    while (start < data.length()) {
+      int nameEnd = data.indexOf(' ', start);
+      int typeEnd = data.indexOf(' ', nameEnd + 1);
+      int end = data.indexOf(',', typeEnd + 1);
+      ATTRIBUTES[index++] = new Attribute(data.substring(start, nameEnd), data.startsWith("true", typeEnd + 1),
+                                          data.substring(nameEnd + 1, typeEnd));
+      start = end + 1;
+    }
+    return index;
+  }
+
+  /**
+   * Adds tag.
+   *
+   * @param tags             Tags to add to.
+   * @param name             Tag name.
+   * @param componentType    Component type.
+   * @param attributeIndexes Indexes of the attributes in {@link #ATTRIBUTES}, separated by commas.
+   */
+  private static void tag(Map<String, Tag> tags, String name, String componentType, String attributeIndexes) {
+    List<Attribute> attributes = new ArrayList<>();
+    int index = 0;
+    for (int i = 0; i < attributeIndexes.length(); i++) {
+      char c = attributeIndexes.charAt(i);
+      if (c == ',') {
+        attributes.add(ATTRIBUTES[index]);
+        index = 0;
+      }
+      else {
+        index = index * 10 + c - '0';
+      }
+    }
+    if (!attributeIndexes.isEmpty()) {
+      attributes.add(ATTRIBUTES[index]);
+    }
+    tags.put(name, new Tag(name, componentType, Collections.unmodifiableList(attributes)));
+  }
+
+  /**
+   * Tag of a component.
+   */
+  public static final class Tag {
+
+    private final String name;
+
+    private final String componentType;
+
+    private final List<Attribute> attributes;
+
+    private Tag(String name, String componentType, List<Attribute> attributes) {
+      this.name = name;
+      this.componentType = componentType;
+      this.attributes = attributes;
+    }
+
+    /**
+     * Returns tag name.
+     *
+     * @return Tag name.
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * Returns component type.
+     *
+     * @return Component type.
+     */
+    public String getComponentType() {
+      return componentType;
+    }
+
+    /**
+     * Returns attributes in name order.
+     *
+     * @return Attributes in name order.
+     */
+    public List<Attribute> getAttributes() {
+      return attributes;
+    }
+
+  }
+
+  /**
+   * Attribute of a tag.
+   */
+  public static final class Attribute {
+
+    private final String name;
+
+    private final boolean required;
+
+    private final String type;
+
+    private Attribute(String name, boolean required, String type) {
+      this.name = name;
+      this.required = required;
+      this.type = type;
+    }
+
+    /**
+     * Returns attribute name.
+     *
+     * @return Attribute name.
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * Returns {@code true} if the attribute is required.
+     *
+     * @return {@code true} if the attribute is required.
+     */
+    public boolean isRequired() {
+      return required;
+    }
+
+    /**
+     * Returns binary name of the attribute type, like {@code java.lang.String} or {@code int}.
+     *
+     * @return Binary name of the attribute type.
+     */
+    public String getType() {
+      return type;
+    }
+
+  }
+<#list tagChunks as chunk>
+
+  private static final class Tags${chunk?index} {
+
+    private static void add(Map<String, Tag> tags) {
+  <#list chunk as component>
+      tag(tags, "${component.name?j_string}", "${component.type?j_string}", "${attributeIndexes[chunk?index * chunkSize + component?index]}");
+  </#list>
+    }
+
+  }
+</#list>
+
+}
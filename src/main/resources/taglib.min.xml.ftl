@@ -0,0 +1,18 @@
+<?xml version="1.0" encoding="UTF-8"?><#t>
+<facelet-taglib xmlns="http://xmlns.jcp.org/xml/ns/javaee" xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance" xsi:schemaLocation="http://xmlns.jcp.org/xml/ns/javaee http://xmlns.jcp.org/xml/ns/javaee/web-facelettaglibrary_2_3.xsd" version="2.3"><#t>
+  <namespace>${pluginConfig.getChild('namespace').value}</namespace><#t>
+  <short-name>${pluginConfig.getChild('shortName').value}</short-name><#t>
+  <#list components as component>
+  <tag><#t>
+    <tag-name>${component.name}</tag-name><#t>
+    <component><component-type>${component.type}</component-type></component><#t>
+    <#list component.attributes as attribute>
+    <attribute><#t>
+      <name>${attribute.name}</name><#t>
+      <required>${attribute.required?c}</required><#t>
+      <type>${attribute.type}</type><#t>
+    </attribute><#t>
+    </#list>
+  </tag><#t>
+  </#list>
+</facelet-taglib><#t>
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.core;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.junit.Test;
+import org.starfaces.mavenplugin.fixture.ComponentLibraryGenerator;
+import org.starfaces.mavenplugin.model.FacesLib;
+import org.starfaces.mavenplugin.output.FreeMarkerRenderer;
+import org.starfaces.mavenplugin.output.OutputStatus;
+import org.starfaces.mavenplugin.report.BuildReport;
+
+/**
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class FacesLibSessionTest extends TestCase {
+
+  /**
+   * Directory the component library is generated in.
+   */
+  private Path directory;
+
+  /**
+   * Classes directory of the generated component library.
+   */
+  private Path classes;
+
+  /**
+   * Generates a component library with two components.
+   *
+   * @throws Exception If generating fails.
+   */
+  @Override
+  protected void setUp() throws Exception {
+    directory = Files.createTempDirectory("starfaces-session");
+    classes = new ComponentLibraryGenerator(2, 2, 1).generate(directory);
+  }
+
+  /**
+   * Deletes the generated component library.
+   *
+   * @throws Exception If deleting fails.
+   */
+  @Override
+  protected void tearDown() throws Exception {
+    ComponentLibraryGenerator.delete(directory);
+  }
+
+  /**
+   * Test of getFacesLib method, of class FacesLibSession.
+   *
+   * @throws Exception If generating fails.
+   */
+  @Test
+  public void testGetFacesLib() throws Exception {
+    FacesLibSession session = new FacesLibSession();
+    FacesLib built = session.getFacesLib(newGenerator());
+    Assert.assertEquals(2, built.getComponents().size());
+    Assert.assertSame(built, session.getFacesLib(newGenerator()));
+
+    ComponentLibraryGenerator.edit(directory, "Component0", "Attribute 0 of", "Edited attribute 0 of");
+    FacesLib updated = session.getFacesLib(newGenerator());
+    Assert.assertNotSame(built, updated);
+    Assert.assertEquals(2, updated.getComponents().size());
+    Assert.assertTrue(updated.getComponents().stream()
+            .flatMap(c -> c.getAttributes().stream())
+            .anyMatch(a -> "Edited attribute 0 of Component0".equals(a.getDescription())));
+    Assert.assertSame(updated, session.getFacesLib(newGenerator()));
+  }
+
+  /**
+   * Test of render method, of class FacesLibSession.
+   *
+   * @throws Exception If generating fails.
+   */
+  @Test
+  public void testRender() throws Exception {
+    FacesLibSession session = new FacesLibSession();
+    Path output = directory.resolve("generated.taglib.xml");
+    Assert.assertEquals(OutputStatus.CREATED, render(session, output));
+    Assert.assertEquals(OutputStatus.UNCHANGED, render(session, output));
+
+    ComponentLibraryGenerator.edit(directory, "Component0", "Attribute 0 of", "Edited attribute 0 of");
+    Assert.assertEquals(OutputStatus.UPDATED, render(session, output));
+    String taglib = new String(Files.readAllBytes(output), StandardCharsets.UTF_8);
+    Assert.assertTrue(taglib.contains("Edited attribute 0 of Component0"));
+  }
+
+  /**
+   * Gets the model of a session and renders the taglib.
+   *
+   * @param session Session.
+   * @param output  Path to render the taglib to.
+   *
+   * @return Whether the output was created, updated or unchanged.
+   *
+   * @throws Exception If generating fails.
+   */
+  private OutputStatus render(FacesLibSession session, Path output) throws Exception {
+    FacesLibGenerator generator = newGenerator();
+    session.getFacesLib(generator);
+    FreeMarkerRenderer renderer = new FreeMarkerRenderer(generator.getFreeMarkerConfiguration(), "taglib.xml.ftl");
+    return session.render(generator, renderer, "taglib.xml.ftl", output);
+  }
+
+  /**
+   * Returns generator for the generated component library.
+   *
+   * @return Generator for the generated component library.
+   */
+  private FacesLibGenerator newGenerator() {
+    return new FacesLibGenerator(classes, ComponentLibraryGenerator.classPathRoots(classes),
+                                 ComponentLibraryGenerator.pluginConfig(), new BuildReport("test"));
+  }
+
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.fixture;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.faces.component.UIComponent;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+/**
+ * Generates a compiled component library: {@code components} classes annotated with {@code @FacesComponent} and
+ * {@code @Description}, each extending a chain of {@code depth} generated base classes. Every class declares a
+ * {@code PropertyKeys} enumeration with {@code attributes} constants annotated with {@code @Attribute}. The sources
+ * are compiled using the system Java compiler against the class path of the running JVM, so a JDK is required.
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class ComponentLibraryGenerator {
+
+  /**
+   * Package of the generated classes.
+   */
+  public static final String PACKAGE = "generated";
+
+  /**
+   * Number of sources compiled per compiler invocation, to limit the memory used by the compiler.
+   */
+  private static final int BATCH_SIZE = 1000;
+
+  /**
+   * Number of components to generate.
+   */
+  private final int components;
+
+  /**
+   * Number of attributes declared by every generated class.
+   */
+  private final int attributes;
+
+  /**
+   * Number of generated base classes between the components and {@code UIComponentBase}.
+   */
+  private final int depth;
+
+  /**
+   * Create generator.
+   *
+   * @param components Sets {@link #components}.
+   * @param attributes Sets {@link #attributes}.
+   * @param depth      Sets {@link #depth}.
+   */
+  public ComponentLibraryGenerator(int components, int attributes, int depth) {
+    this.components = components;
+    this.attributes = attributes;
+    this.depth = depth;
+  }
+
+  /**
+   * Generates and compiles the library. Sources are written to {@code src} and classes to {@code classes} in the
+   * provided directory.
+   *
+   * @param directory Directory to generate the library in.
+   *
+   * @return Path of the classes directory.
+   *
+   * @throws IOException If any exceptions happen writing or compiling.
+   */
+  public Path generate(Path directory) throws IOException {
+    Path sources = directory.resolve("src");
+    Path classes = directory.resolve("classes");
+    Path packagePath = sources.resolve(PACKAGE);
+    Files.createDirectories(packagePath);
+    Files.createDirectories(classes);
+    List<File> baseFiles = new ArrayList<>();
+    for (int level = 0; level < depth; level++) {
+      String superclass = level == 0 ? null : baseName(level - 1);
+      baseFiles.add(write(packagePath, baseName(level), source(baseName(level), superclass, null)));
+    }
+    compile(baseFiles, classes);
+    String superclass = depth == 0 ? null : baseName(depth - 1);
+    List<File> batch = new ArrayList<>();
+    for (int i = 0; i < components; i++) {
+      String name = componentName(i);
+      batch.add(write(packagePath, name, source(name, superclass, "Generated component " + i)));
+      if (batch.size() == BATCH_SIZE) {
+        compile(batch, classes);
+        batch.clear();
+      }
+    }
+    compile(batch, classes);
+    return classes;
+  }
+
+  /**
+   * Replaces text in the source of a generated class and compiles only that source again, like an incremental compile
+   * by an IDE.
+   *
+   * @param directory   Directory the library was generated in.
+   * @param name        Simple class name.
+   * @param target      Text to replace.
+   * @param replacement Replacement text.
+   *
+   * @throws IOException If any exceptions happen reading, writing or compiling.
+   */
+  public static void edit(Path directory, String name, String target, String replacement) throws IOException {
+    Path packagePath = directory.resolve("src").resolve(PACKAGE);
+    String source = new String(Files.readAllBytes(packagePath.resolve(name + ".java")), StandardCharsets.UTF_8);
+    if (!source.contains(target)) {
+      throw new IllegalArgumentException(name + " does not contain " + target);
+    }
+    compile(Arrays.asList(write(packagePath, name, source.replace(target, replacement))), directory.resolve("classes"));
+  }
+
+  /**
+   * Deletes a directory a library was generated in.
+   *
+   * @param directory Directory to delete.
+   *
+   * @throws IOException If any exceptions happen deleting.
+   */
+  public static void delete(Path directory) throws IOException {
+    try (Stream<Path> paths = Files.walk(directory)) {
+      for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+        Files.delete(path);
+      }
+    }
+  }
+
+  /**
+   * Returns class path roots to inspect the generated library: the classes directory followed by the class path root
+   * of the Faces API.
+   *
+   * @param classes Classes directory of the generated library.
+   *
+   * @return Class path roots.
+   */
+  public static List<Path> classPathRoots(Path classes) {
+    try {
+      return Arrays.asList(classes,
+                           Paths.get(UIComponent.class.getProtectionDomain().getCodeSource().getLocation().toURI()));
+    }
+    catch (URISyntaxException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  /**
+   * Returns plugin configuration with a description, namespace and short name, as needed to render a taglib.
+   *
+   * @return Plugin configuration.
+   */
+  public static Xpp3Dom pluginConfig() {
+    Xpp3Dom config = new Xpp3Dom("configuration");
+    String[][] children = {{"description", "Generated library"}, {"namespace", "http://example.com/" + PACKAGE},
+                           {"shortName", PACKAGE}};
+    for (String[] child : children) {
+      Xpp3Dom dom = new Xpp3Dom(child[0]);
+      dom.setValue(child[1]);
+      config.addChild(dom);
+    }
+    return config;
+  }
+
+  /**
+   * Returns simple name of a base class.
+   *
+   * @param level Level of the base class ({@code 0} extends {@code UIComponentBase}).
+   *
+   * @return Simple name of the base class.
+   */
+  private static String baseName(int level) {
+    return "Base" + level;
+  }
+
+  /**
+   * Returns simple name of a component class.
+   *
+   * @param index Index of the component.
+   *
+   * @return Simple name of the component class.
+   */
+  public static String componentName(int index) {
+    return "Component" + index;
+  }
+
+  /**
+   * Returns source of a class.
+   *
+   * @param name        Simple class name.
+   * @param superclass  Simple name of the generated super class or {@code null} to extend {@code UIComponentBase}.
+   * @param description Description of the component or {@code null} if the class is not a component.
+   *
+   * @return Source of the class.
+   */
+  private String source(String name, String superclass, String description) {
+    StringBuilder source = new StringBuilder();
+    source.append("package ").append(PACKAGE).append(";\n\n");
+    if (description != null) {
+      source.append("@javax.faces.component.FacesComponent(\"").append(PACKAGE).append('.').append(name)
+              .append("\")\n");
+      source.append("@org.starfaces.annotations.Description(\"").append(description).append("\")\n");
+    }
+    source.append(description == null ? "public abstract class " : "public class ").append(name).append(" extends ")
+            .append(superclass == null ? "javax.faces.component.UIComponentBase" : superclass).append(" {\n\n");
+    source.append("  public enum PropertyKeys {\n");
+    for (int i = 0; i < attributes; i++) {
+      source.append("    @org.starfaces.annotations.Attribute(value = \"Attribute ").append(i).append(" of ")
+              .append(name).append("\", required = ").append(i % 5 == 0)
+              .append(", type = ").append(i % 2 == 0 ? "String" : "Integer").append(".class)\n");
+      source.append("    ").append(name.toLowerCase()).append("Attr").append(i).append(",\n");
+    }
+    source.append("  }\n");
+    if (superclass == null) {
+      source.append("\n  @Override\n  public String getFamily() {\n    return \"").append(PACKAGE).append("\";\n  }\n");
+    }
+    source.append("\n}\n");
+    return source.toString();
+  }
+
+  /**
+   * Writes source file.
+   *
+   * @param packagePath Package directory.
+   * @param name        Simple class name.
+   * @param source      Source.
+   *
+   * @return Written file.
+   *
+   * @throws IOException If any exceptions happen writing.
+   */
+  private static File write(Path packagePath, String name, String source) throws IOException {
+    Path file = packagePath.resolve(name + ".java");
+    Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+    return file.toFile();
+  }
+
+  /**
+   * Compiles sources to the classes directory, which is also on the class path of the compiler.
+   *
+   * @param files   Source files.
+   * @param classes Classes directory.
+   *
+   * @throws IOException If any exceptions happen compiling.
+   */
+  private static void compile(List<File> files, Path classes) throws IOException {
+    if (files.isEmpty()) {
+      return;
+    }
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler == null) {
+      throw new IllegalStateException("A JDK is required to generate component libraries");
+    }
+    try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+      Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(files);
+      List<String> options = Arrays.asList("-d", classes.toString(),
+                                           "-cp", System.getProperty("java.class.path") + File.pathSeparator + classes,
+                                           "-proc:none", "-nowarn");
+      if (!compiler.getTask(null, fileManager, null, options, null, units).call()) {
+        throw new IOException("Could not compile generated component library");
+      }
+    }
+  }
+
+}
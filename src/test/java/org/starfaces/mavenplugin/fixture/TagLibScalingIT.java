@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.fixture;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.junit.Test;
+import org.starfaces.mavenplugin.core.FacesLibGenerator;
+import org.starfaces.mavenplugin.model.FacesLib;
+import org.starfaces.mavenplugin.output.FreeMarkerRenderer;
+import org.starfaces.mavenplugin.output.OutputStatus;
+import org.starfaces.mavenplugin.report.BuildReport;
+
+/**
+ * Runs the taglib generation (scan, model build, render and write) using {@link FacesLibGenerator}, like the goals
+ * do, against generated libraries of increasing size and checks the wall-clock time and the heap retained by the
+ * model. Run using the {@code scaling} profile, which runs
+ * this test with a fixed maximum heap. Sizes and limits can be set using system properties:
+ * <ul>
+ * <li>{@code starfaces.scaling.sizes}: comma separated component counts (default {@code 10,1000});</li>
+ * <li>{@code starfaces.scaling.millisPerComponent}: time budget per component (default {@code 5});</li>
+ * <li>{@code starfaces.scaling.bytesPerComponent}: retained heap budget per component (default {@code 32768}).</li>
+ * </ul>
+ *
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class TagLibScalingIT extends TestCase {
+
+  /**
+   * Number of attributes declared by every generated class.
+   */
+  private static final int ATTRIBUTES = 10;
+
+  /**
+   * Number of generated base classes.
+   */
+  private static final int DEPTH = 3;
+
+  /**
+   * Time budget independent of the number of components (JIT warm up, template parsing).
+   */
+  private static final long BASE_MILLIS = 5000;
+
+  /**
+   * Retained heap budget independent of the number of components.
+   */
+  private static final long BASE_BYTES = 16L * 1024 * 1024;
+
+  /**
+   * Test taglib generation for all configured sizes.
+   *
+   * @throws Exception If generating, scanning or rendering fails.
+   */
+  @Test
+  public void testScaling() throws Exception {
+    for (String size : System.getProperty("starfaces.scaling.sizes", "10,1000").split(",")) {
+      generateTagLib(Integer.parseInt(size.trim()));
+    }
+  }
+
+  /**
+   * Generates a library with the provided number of components and generates its taglib.
+   *
+   * @param components Number of components.
+   *
+   * @throws Exception If generating, scanning or rendering fails.
+   */
+  private void generateTagLib(int components) throws Exception {
+    Path directory = Files.createTempDirectory("starfaces-scaling");
+    try {
+      Path classes = new ComponentLibraryGenerator(components, ATTRIBUTES, DEPTH).generate(directory);
+      Path tagLib = directory.resolve("generated.taglib.xml");
+      MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+      System.gc();
+      long heapBefore = memory.getHeapMemoryUsage().getUsed();
+      long start = System.nanoTime();
+      FacesLibGenerator generator = new FacesLibGenerator(classes, ComponentLibraryGenerator.classPathRoots(classes),
+                                                          ComponentLibraryGenerator.pluginConfig(),
+                                                          new BuildReport("scaling"));
+      FacesLib lib = generator.build();
+      FreeMarkerRenderer renderer = new FreeMarkerRenderer(generator.getFreeMarkerConfiguration(), "taglib.xml.ftl");
+      Assert.assertEquals(OutputStatus.CREATED, generator.render(renderer, lib, tagLib));
+      long millis = (System.nanoTime() - start) / 1_000_000;
+      System.gc();
+      long retained = memory.getHeapMemoryUsage().getUsed() - heapBefore;
+
+      Assert.assertEquals(components, lib.getComponents().size());
+      Assert.assertEquals(ATTRIBUTES * (DEPTH + 1), lib.getComponents().get(0).getAttributes().size());
+      try (Stream<String> lines = Files.lines(tagLib)) {
+        Assert.assertTrue(lines.anyMatch(l -> l.contains("<component-type>generated.Component0</component-type>")));
+      }
+      long maxMillis = BASE_MILLIS + components * Long.getLong("starfaces.scaling.millisPerComponent", 5);
+      long maxBytes = BASE_BYTES + components * Long.getLong("starfaces.scaling.bytesPerComponent", 32768);
+      System.out.println(String.format("%d components: %d ms (limit %d), %d KiB retained (limit %d)",
+                                       components, millis, maxMillis, retained / 1024, maxBytes / 1024));
+      Assert.assertTrue(components + " components took " + millis + " ms", millis <= maxMillis);
+      Assert.assertTrue(components + " components retained " + retained + " bytes", retained <= maxBytes);
+    }
+    finally {
+      ComponentLibraryGenerator.delete(directory);
+    }
+  }
+
+}
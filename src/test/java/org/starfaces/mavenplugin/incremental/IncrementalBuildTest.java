@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.incremental;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.junit.Test;
+import org.starfaces.mavenplugin.core.FacesLibGenerator;
+import org.starfaces.mavenplugin.fixture.ComponentLibraryGenerator;
+import org.starfaces.mavenplugin.model.CompAttribute;
+import org.starfaces.mavenplugin.model.FacesLib;
+import org.starfaces.mavenplugin.model.LibComponent;
+import org.starfaces.mavenplugin.report.BuildReport;
+import org.starfaces.mavenplugin.util.PackageFilter;
+
+/**
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class IncrementalBuildTest extends TestCase {
+
+  /**
+   * Directory the component library is generated in.
+   */
+  private Path directory;
+
+  /**
+   * Classes directory of the generated component library.
+   */
+  private Path classes;
+
+  /**
+   * Generates a component library with two components.
+   *
+   * @throws Exception If generating fails.
+   */
+  @Override
+  protected void setUp() throws Exception {
+    directory = Files.createTempDirectory("starfaces-incremental");
+    classes = new ComponentLibraryGenerator(2, 2, 1).generate(directory);
+  }
+
+  /**
+   * Deletes the generated component library.
+   *
+   * @throws Exception If deleting fails.
+   */
+  @Override
+  protected void tearDown() throws Exception {
+    ComponentLibraryGenerator.delete(directory);
+  }
+
+  /**
+   * Test of getReusableComponents and getClassesToInspect methods, of class IncrementalBuild, when only an attribute
+   * in a {@code PropertyKeys} enumeration changed.
+   *
+   * @throws Exception If generating fails.
+   */
+  @Test
+  public void testPropertyKeysChange() throws Exception {
+    Path stateFile = directory.resolve("taglib-xml.state");
+    FacesLib lib = newGenerator().build();
+    newIncrementalBuild(stateFile, PackageFilter.ALL).save(lib);
+    ComponentLibraryGenerator.edit(directory, "Component0", "Attribute 0 of", "Edited attribute 0 of");
+
+    IncrementalBuild build = newIncrementalBuild(stateFile, PackageFilter.ALL);
+    Assert.assertFalse(build.isUpToDate());
+    Assert.assertTrue(build.getChangedClasses().contains("generated.Component0$PropertyKeys"));
+    Assert.assertEquals(1, build.getReusableComponents().size());
+    FacesLib updated = newGenerator().build(build.getClassesToInspect(), build.getReusableComponents());
+    Assert.assertEquals("Edited attribute 0 of Component0", description(updated, "Component0", "component0Attr0"));
+    Assert.assertEquals("Attribute 0 of Component1", description(updated, "Component1", "component1Attr0"));
+  }
+
+  /**
+   * Test of update method, of class FacesLibGenerator, when only an attribute in a {@code PropertyKeys} enumeration
+   * changed.
+   *
+   * @throws Exception If generating fails.
+   */
+  @Test
+  public void testUpdatePropertyKeysChange() throws Exception {
+    FacesLib lib = newGenerator().build();
+    ComponentLibraryGenerator.edit(directory, "Component0", "Attribute 0 of", "Edited attribute 0 of");
+
+    FacesLib updated = newGenerator().update(lib, Collections.singleton("generated.Component0$PropertyKeys"));
+    Assert.assertEquals("Edited attribute 0 of Component0", description(updated, "Component0", "component0Attr0"));
+    Assert.assertEquals(2, updated.getComponents().size());
+  }
+
+  /**
+   * Test of getClassesHash and getClassesToInspect methods, of class IncrementalBuild, when the changed classes are in
+   * an excluded package.
+   *
+   * @throws Exception If generating fails.
+   */
+  @Test
+  public void testExcludedPackageChange() throws Exception {
+    Path stateFile = directory.resolve("taglib-xml.state");
+    PackageFilter filter = new PackageFilter(null, Arrays.asList(ComponentLibraryGenerator.PACKAGE));
+    IncrementalBuild build = newIncrementalBuild(stateFile, filter);
+    Assert.assertEquals(0, build.getClassesToInspect().count());
+    build.save(newGenerator().build());
+    ComponentLibraryGenerator.edit(directory, "Base0", "Attribute 0 of", "Edited attribute 0 of");
+
+    IncrementalBuild changed = newIncrementalBuild(stateFile, filter);
+    Assert.assertFalse(changed.isUpToDate());
+    Assert.assertNotEquals(build.getClassesHash(), changed.getClassesHash());
+    Assert.assertEquals(0, changed.getReusableComponents().size());
+    Assert.assertEquals(2, changed.getClassesToInspect().count());
+  }
+
+  /**
+   * Test of saveFingerprints method, of class IncrementalBuild: the next build is up to date if nothing changed, and
+   * inspects all classes if anything changed.
+   *
+   * @throws Exception If generating fails.
+   */
+  @Test
+  public void testSaveFingerprints() throws Exception {
+    Path stateFile = directory.resolve("taglib-xml.state");
+    newIncrementalBuild(stateFile, PackageFilter.ALL).saveFingerprints();
+    Assert.assertTrue(newIncrementalBuild(stateFile, PackageFilter.ALL).isUpToDate());
+    ComponentLibraryGenerator.edit(directory, "Component0", "Attribute 0 of", "Edited attribute 0 of");
+
+    IncrementalBuild build = newIncrementalBuild(stateFile, PackageFilter.ALL);
+    Assert.assertFalse(build.isUpToDate());
+    Assert.assertEquals(0, build.getReusableComponents().size());
+    Assert.assertEquals(newIncrementalBuild(directory.resolve("none.state"), PackageFilter.ALL)
+            .getClassesToInspect().count(), build.getClassesToInspect().count());
+  }
+
+  /**
+   * Test of read method, of class BuildState, when the state file is truncated, like by an interrupted build.
+   *
+   * @throws Exception If generating fails.
+   */
+  @Test
+  public void testTruncatedState() throws Exception {
+    Path stateFile = directory.resolve("taglib-xml.state");
+    newIncrementalBuild(stateFile, PackageFilter.ALL).save(newGenerator().build());
+    Assert.assertNotNull(BuildState.read(stateFile, Assert::fail));
+    byte[] state = Files.readAllBytes(stateFile);
+    Files.write(stateFile, Arrays.copyOf(state, state.length / 2));
+
+    List<String> messages = new ArrayList<>();
+    Assert.assertNull(BuildState.read(stateFile, messages::add));
+    Assert.assertEquals(1, messages.size());
+    IncrementalBuild build = newIncrementalBuild(stateFile, PackageFilter.ALL);
+    Assert.assertFalse(build.isUpToDate());
+    Assert.assertEquals(0, build.getReusableComponents().size());
+    try (Stream<Path> files = Files.list(directory)) {
+      Assert.assertEquals(0, files.filter(f -> f.toString().endsWith(".tmp")).count());
+    }
+  }
+
+  /**
+   * Test of withOuterClasses method, of class ComponentState.
+   */
+  @Test
+  public void testWithOuterClasses() {
+    Assert.assertEquals(Collections.singleton("a.B"), ComponentState.withOuterClasses(Arrays.asList("a.B")));
+    Assert.assertEquals(5, ComponentState.withOuterClasses(Arrays.asList("a.B$C$D", "a.E$F")).size());
+    Assert.assertTrue(ComponentState.withOuterClasses(Arrays.asList("a.B$C$D")).contains("a.B$C"));
+  }
+
+  /**
+   * Returns incremental build for the generated component library, ignoring debug messages.
+   *
+   * @param stateFile State file.
+   * @param filter    Filter on the packages of the classes to inspect.
+   *
+   * @return Incremental build.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  private IncrementalBuild newIncrementalBuild(Path stateFile, PackageFilter filter) throws IOException {
+    return new IncrementalBuild(stateFile, classes, 100, filter, "", "", message -> {
+    });
+  }
+
+  /**
+   * Returns generator for the generated component library.
+   *
+   * @return Generator for the generated component library.
+   */
+  private FacesLibGenerator newGenerator() {
+    return new FacesLibGenerator(classes, ComponentLibraryGenerator.classPathRoots(classes),
+                                 ComponentLibraryGenerator.pluginConfig(), new BuildReport("test"));
+  }
+
+  /**
+   * Returns description of an attribute of a generated component.
+   *
+   * @param lib       Model.
+   * @param component Simple class name of the component.
+   * @param attribute Name of the attribute.
+   *
+   * @return Description of the attribute.
+   */
+  private static String description(FacesLib lib, String component, String attribute) {
+    for (LibComponent libComponent : lib.getComponents()) {
+      if (libComponent.getClassName().equals(ComponentLibraryGenerator.PACKAGE + '.' + component)) {
+        for (CompAttribute compAttribute : libComponent.getAttributes()) {
+          if (compAttribute.getName().equals(attribute)) {
+            return compAttribute.getDescription();
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.incremental;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.junit.Test;
+import org.starfaces.mavenplugin.core.FacesLibGenerator;
+import org.starfaces.mavenplugin.fixture.ComponentLibraryGenerator;
+import org.starfaces.mavenplugin.inspect.ClassInspector;
+import org.starfaces.mavenplugin.report.BuildReport;
+
+/**
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class JarIndexCacheTest extends TestCase {
+
+  /**
+   * Directory the component library is generated in.
+   */
+  private Path directory;
+
+  /**
+   * Jar with the classes of the generated component library.
+   */
+  private Path jar;
+
+  /**
+   * Directory storing the index files.
+   */
+  private Path indexes;
+
+  /**
+   * Generates a component library with two components and packages it in a jar.
+   *
+   * @throws Exception If generating fails.
+   */
+  @Override
+  protected void setUp() throws Exception {
+    directory = Files.createTempDirectory("starfaces-jars");
+    jar = directory.resolve("components.jar");
+    indexes = directory.resolve("jars");
+    writeJar(new ComponentLibraryGenerator(2, 2, 1).generate(directory));
+  }
+
+  /**
+   * Deletes the generated component library.
+   *
+   * @throws Exception If deleting fails.
+   */
+  @Override
+  protected void tearDown() throws Exception {
+    ComponentLibraryGenerator.delete(directory);
+  }
+
+  /**
+   * Test of components and save methods, of class JarIndexCache.
+   *
+   * @throws Exception If generating fails.
+   */
+  @Test
+  public void testComponents() throws Exception {
+    List<ComponentState> built = components();
+    Assert.assertEquals(2, built.size());
+    Assert.assertEquals(1, indexFiles().size());
+
+    JarIndexCache cache = newCache();
+    List<ComponentState> cached = cache.components(jar, newInspector());
+    Assert.assertEquals(1, cache.getHits());
+    Assert.assertEquals(0, cache.getMisses());
+    Assert.assertEquals(built.size(), cached.size());
+    for (int i = 0; i < built.size(); i++) {
+      Assert.assertEquals(built.get(i).getInfo().getClassName(), cached.get(i).getInfo().getClassName());
+      Assert.assertEquals(built.get(i).getHierarchy(), cached.get(i).getHierarchy());
+      Assert.assertEquals(built.get(i).getAttributes().size(), cached.get(i).getAttributes().size());
+    }
+  }
+
+  /**
+   * Test of save method, of class JarIndexCache, when a jar changed.
+   *
+   * @throws Exception If generating fails.
+   */
+  @Test
+  public void testSavePrunesIndexes() throws Exception {
+    components();
+    List<Path> before = indexFiles();
+    ComponentLibraryGenerator.edit(directory, "Component0", "Attribute 0 of", "Edited attribute 0 of");
+    writeJar(directory.resolve("classes"));
+
+    components();
+    List<Path> after = indexFiles();
+    Assert.assertEquals(1, after.size());
+    Assert.assertNotEquals(before, after);
+  }
+
+  /**
+   * Test of components method, of class JarIndexCache: changes in class path directories (like the classes of other
+   * reactor modules) do not invalidate the index.
+   *
+   * @throws Exception If generating fails.
+   */
+  @Test
+  public void testIgnoresClassPathDirectories() throws Exception {
+    Path module = Files.createDirectories(directory.resolve("module"));
+    Files.write(module.resolve("Sibling.class"), new byte[]{1});
+    components(newCache(module));
+    Files.write(module.resolve("Sibling.class"), new byte[]{2});
+
+    JarIndexCache cache = newCache(module);
+    cache.components(jar, newInspector());
+    Assert.assertEquals(1, cache.getHits());
+  }
+
+  /**
+   * Test of components method, of class JarIndexCache, when an index is truncated.
+   *
+   * @throws Exception If generating fails.
+   */
+  @Test
+  public void testTruncatedIndex() throws Exception {
+    components();
+    Path index = indexFiles().get(0);
+    byte[] bytes = Files.readAllBytes(index);
+    Files.write(index, Arrays.copyOf(bytes, bytes.length / 2));
+    Files.write(indexes.resolve("jars.state"), new byte[]{0, 0});
+
+    List<String> messages = new ArrayList<>();
+    JarIndexCache cache = new JarIndexCache(indexes, ComponentLibraryGenerator.classPathRoots(jar), messages::add);
+    Assert.assertEquals(2, cache.components(jar, newInspector()).size());
+    Assert.assertEquals(0, cache.getHits());
+    Assert.assertEquals(1, cache.getMisses());
+    Assert.assertEquals(2, messages.size());
+    Assert.assertEquals(Arrays.asList(index), indexFiles());
+    try (Stream<Path> files = Files.list(indexes)) {
+      Assert.assertFalse(files.anyMatch(f -> f.toString().endsWith(".tmp")));
+    }
+  }
+
+  /**
+   * Returns the components of the jar, using a new cache, and saves the cache.
+   *
+   * @return Components of the jar.
+   *
+   * @throws IOException If any exceptions happen reading or writing.
+   */
+  private List<ComponentState> components() throws IOException {
+    return components(newCache());
+  }
+
+  /**
+   * Returns the components of the jar, using a cache, and saves the cache.
+   *
+   * @param cache Cache to use.
+   *
+   * @return Components of the jar.
+   *
+   * @throws IOException If any exceptions happen reading or writing.
+   */
+  private List<ComponentState> components(JarIndexCache cache) throws IOException {
+    List<ComponentState> components = cache.components(jar, newInspector());
+    cache.save();
+    return components;
+  }
+
+  /**
+   * Returns new cache for the class path of the jar and the Faces API, followed by extra class path entries.
+   *
+   * @param extra Extra class path entries.
+   *
+   * @return New cache.
+   */
+  private JarIndexCache newCache(Path... extra) {
+    List<Path> classPath = new ArrayList<>(ComponentLibraryGenerator.classPathRoots(jar));
+    classPath.addAll(Arrays.asList(extra));
+    return new JarIndexCache(indexes, classPath, message -> {
+    });
+  }
+
+  /**
+   * Returns class inspector for the jar and the Faces API.
+   *
+   * @return Class inspector for the jar and the Faces API.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  private ClassInspector newInspector() throws IOException {
+    return new FacesLibGenerator(directory.resolve("src"), ComponentLibraryGenerator.classPathRoots(jar),
+                                 ComponentLibraryGenerator.pluginConfig(), new BuildReport("test")).getClassInspector();
+  }
+
+  /**
+   * Returns the index files in the index directory.
+   *
+   * @return Index files, sorted.
+   *
+   * @throws IOException If any exceptions happen reading.
+   */
+  private List<Path> indexFiles() throws IOException {
+    try (Stream<Path> files = Files.list(indexes)) {
+      return files.filter(f -> f.toString().endsWith(".idx")).sorted().collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * Writes the class files of a classes directory to {@link #jar}.
+   *
+   * @param classes Classes directory.
+   *
+   * @throws IOException If any exceptions happen reading or writing.
+   */
+  private void writeJar(Path classes) throws IOException {
+    try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar));
+         Stream<Path> files = Files.walk(classes)) {
+      for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile).sorted()::iterator) {
+        out.putNextEntry(new JarEntry(classes.relativize(file).toString().replace('\\', '/')));
+        Files.copy(file, (OutputStream) out);
+        out.closeEntry();
+      }
+    }
+  }
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.inspect;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class ClassFileReaderTest extends TestCase {
+
+  /**
+   * Test of typeName method, of class ClassFileReader.
+   */
+  @Test
+  public void testTypeName() {
+    Assert.assertEquals("int", ClassFileReader.typeName("I"));
+    Assert.assertEquals("java.lang.String", ClassFileReader.typeName("Ljava/lang/String;"));
+    Assert.assertEquals(String[].class.getName(), ClassFileReader.typeName("[Ljava/lang/String;"));
+  }
+
+  /**
+   * Test of read method, of class ClassFileReader.
+   *
+   * @throws Exception If reading the class file fails.
+   */
+  @Test
+  public void testRead() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (InputStream stream = getClass().getResourceAsStream("ClassFileReaderTest.class")) {
+      byte[] buffer = new byte[1024];
+      int read;
+      while ((read = stream.read(buffer)) != -1) {
+        out.write(buffer, 0, read);
+      }
+    }
+    ClassFile classFile = ClassFileReader.read(out.toByteArray());
+    Assert.assertEquals(ClassFileReaderTest.class.getName(), classFile.getName());
+    Assert.assertEquals(TestCase.class.getName(), classFile.getSuperName());
+    Assert.assertEquals("ClassFileReaderTest", classFile.getSimpleName());
+  }
+
+}
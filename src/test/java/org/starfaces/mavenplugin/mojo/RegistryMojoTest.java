@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.mojo;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.tools.ToolProvider;
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.junit.Test;
+import org.starfaces.mavenplugin.core.FacesLibGenerator;
+import org.starfaces.mavenplugin.fixture.ComponentLibraryGenerator;
+import org.starfaces.mavenplugin.model.CompAttribute;
+import org.starfaces.mavenplugin.model.FacesLib;
+import org.starfaces.mavenplugin.model.LibComponent;
+import org.starfaces.mavenplugin.output.FreeMarkerRenderer;
+import org.starfaces.mavenplugin.report.BuildReport;
+
+/**
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class RegistryMojoTest extends TestCase {
+
+  /**
+   * Directory the component library is generated in.
+   */
+  private Path directory;
+
+  /**
+   * Classes directory of the generated component library.
+   */
+  private Path classes;
+
+  /**
+   * Generates a component library with three components sharing the attributes of their base class.
+   *
+   * @throws Exception If generating fails.
+   */
+  @Override
+  protected void setUp() throws Exception {
+    directory = Files.createTempDirectory("starfaces-registry");
+    classes = new ComponentLibraryGenerator(3, 3, 1).generate(directory);
+  }
+
+  /**
+   * Deletes the generated component library.
+   *
+   * @throws Exception If deleting fails.
+   */
+  @Override
+  protected void tearDown() throws Exception {
+    ComponentLibraryGenerator.delete(directory);
+  }
+
+  /**
+   * Test of putAttributes method, of class RegistryMojo: the registry rendered from the encoded attributes is compiled
+   * and loaded, and must hold the tags and attributes of the model.
+   *
+   * @throws Exception If generating, compiling or loading fails.
+   */
+  @Test
+  public void testPutAttributes() throws Exception {
+    FacesLibGenerator generator = new FacesLibGenerator(classes, ComponentLibraryGenerator.classPathRoots(classes),
+                                                        ComponentLibraryGenerator.pluginConfig(),
+                                                        new BuildReport("test"));
+    FacesLib lib = generator.build();
+    Map<String, Object> variables = new HashMap<>();
+    variables.put("packageName", "registry");
+    variables.put("className", "TestTagLibrary");
+    variables.put("chunkSize", 2);
+    RegistryMojo.putAttributes(lib, variables);
+    // 3 attributes of the base class, shared by all components, and 3 of every component
+    Assert.assertEquals(12, variables.get("attributeCount"));
+
+    Path source = Files.createDirectories(directory.resolve("registry")).resolve("TestTagLibrary.java");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new FreeMarkerRenderer(generator.getFreeMarkerConfiguration(), "registry.java.ftl", variables).render(lib, out);
+    Files.write(source, out.toByteArray());
+    Path compiled = Files.createDirectories(directory.resolve("compiled"));
+    Assert.assertEquals(0, ToolProvider.getSystemJavaCompiler()
+                        .run(null, null, null, "-encoding", "UTF-8", "-d", compiled.toString(), source.toString()));
+
+    try (URLClassLoader loader = new URLClassLoader(new URL[]{compiled.toUri().toURL()}, null)) {
+      Map<?, ?> tags = (Map<?, ?>) invoke(loader.loadClass("registry.TestTagLibrary"), null, "getTags");
+      Assert.assertEquals(lib.getComponents().size(), tags.size());
+      for (LibComponent component : lib.getComponents()) {
+        Object tag = tags.get(component.getName());
+        Assert.assertEquals(component.getType(), invoke(tag.getClass(), tag, "getComponentType"));
+        List<String> expected = new ArrayList<>();
+        for (CompAttribute attribute : component.getAttributes()) {
+          expected.add(attribute.getName() + ' ' + attribute.getType() + ' ' + attribute.isRequired());
+        }
+        List<String> actual = new ArrayList<>();
+        for (Object attribute : (List<?>) invoke(tag.getClass(), tag, "getAttributes")) {
+          actual.add(invoke(attribute.getClass(), attribute, "getName") + " "
+                     + invoke(attribute.getClass(), attribute, "getType") + " "
+                     + invoke(attribute.getClass(), attribute, "isRequired"));
+        }
+        Assert.assertEquals(expected, actual);
+      }
+    }
+  }
+
+  /**
+   * Invokes a public method without parameters.
+   *
+   * @param clss   Class declaring the method.
+   * @param target Object to invoke the method on, {@code null} for static methods.
+   * @param method Name of the method.
+   *
+   * @return Result of the method.
+   *
+   * @throws Exception If invoking fails.
+   */
+  private static Object invoke(Class<?> clss, Object target, String method) throws Exception {
+    return clss.getMethod(method).invoke(target);
+  }
+
+}
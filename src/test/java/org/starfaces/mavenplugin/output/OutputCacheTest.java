@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.output;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.junit.Test;
+import org.starfaces.mavenplugin.core.FacesLibGenerator;
+import org.starfaces.mavenplugin.fixture.ComponentLibraryGenerator;
+import org.starfaces.mavenplugin.report.BuildReport;
+
+/**
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class OutputCacheTest extends TestCase {
+
+  /**
+   * Directory to write to.
+   */
+  private Path directory;
+
+  /**
+   * Creates the directory to write to.
+   *
+   * @throws Exception If creating fails.
+   */
+  @Override
+  protected void setUp() throws Exception {
+    directory = Files.createTempDirectory("starfaces-cache");
+  }
+
+  /**
+   * Deletes the directory written to.
+   *
+   * @throws Exception If deleting fails.
+   */
+  @Override
+  protected void tearDown() throws Exception {
+    ComponentLibraryGenerator.delete(directory);
+  }
+
+  /**
+   * Test of store and restore methods, of class OutputCache.
+   *
+   * @throws Exception If reading or writing fails.
+   */
+  @Test
+  public void testStoreAndRestore() throws Exception {
+    OutputCache cache = new OutputCache(directory.resolve("cache"));
+    String key = "0123456789abcdef";
+    Assert.assertNull(cache.restore(key, directory::resolve));
+
+    Path generated = Files.createDirectories(directory.resolve("generated"));
+    Map<String, Path> outputs = new LinkedHashMap<>();
+    outputs.put("my.taglib.xml", Files.write(generated.resolve("my.taglib.xml"), bytes("<taglib/>")));
+    outputs.put("shards/my.taglib.xml", Files.write(generated.resolve("shard.taglib.xml"), bytes("<shard/>")));
+    cache.store(key, outputs);
+
+    Path restore = directory.resolve("restore");
+    Map<Path, OutputStatus> restored = cache.restore(key, restore::resolve);
+    Assert.assertEquals(2, restored.size());
+    Assert.assertEquals(OutputStatus.CREATED, restored.get(restore.resolve("my.taglib.xml")));
+    Assert.assertEquals("<taglib/>", string(restore.resolve("my.taglib.xml")));
+    Assert.assertEquals("<shard/>", string(restore.resolve("shards/my.taglib.xml")));
+
+    Map<Path, OutputStatus> again = cache.restore(key, restore::resolve);
+    Assert.assertEquals(OutputStatus.UNCHANGED, again.get(restore.resolve("my.taglib.xml")));
+    Assert.assertEquals(OutputStatus.UNCHANGED, again.get(restore.resolve("shards/my.taglib.xml")));
+  }
+
+  /**
+   * Test of getOutputCacheKey method, of class FacesLibGenerator: the key does not depend on the directory of a
+   * library, but does depend on its classes.
+   *
+   * @throws Exception If generating fails.
+   */
+  @Test
+  public void testOutputCacheKey() throws Exception {
+    Path first = directory.resolve("first");
+    Path second = directory.resolve("second");
+    String key = outputCacheKey(new ComponentLibraryGenerator(2, 2, 1).generate(first));
+    Assert.assertEquals(key, outputCacheKey(new ComponentLibraryGenerator(2, 2, 1).generate(second)));
+
+    ComponentLibraryGenerator.edit(second, "Component0", "Attribute 0 of", "Edited attribute 0 of");
+    Assert.assertNotEquals(key, outputCacheKey(second.resolve("classes")));
+  }
+
+  /**
+   * Returns the output cache key of the taglib goal for a classes directory.
+   *
+   * @param classes Classes directory.
+   *
+   * @return Output cache key.
+   *
+   * @throws Exception If reading fails.
+   */
+  private static String outputCacheKey(Path classes) throws Exception {
+    return new FacesLibGenerator(classes, ComponentLibraryGenerator.classPathRoots(classes),
+                                 ComponentLibraryGenerator.pluginConfig(), new BuildReport("test"))
+            .getOutputCacheKey("taglib-xml.state");
+  }
+
+  /**
+   * Returns UTF-8 bytes of a string.
+   *
+   * @param string String.
+   *
+   * @return UTF-8 bytes.
+   */
+  private static byte[] bytes(String string) {
+    return string.getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Returns the UTF-8 content of a file.
+   *
+   * @param file File.
+   *
+   * @return Content of the file.
+   *
+   * @throws Exception If reading fails.
+   */
+  private static String string(Path file) throws Exception {
+    return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+  }
+
+}
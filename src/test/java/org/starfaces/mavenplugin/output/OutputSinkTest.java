@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.output;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.stream.Stream;
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.junit.Test;
+import org.starfaces.mavenplugin.fixture.ComponentLibraryGenerator;
+
+/**
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class OutputSinkTest extends TestCase {
+
+  /**
+   * Directory to write to.
+   */
+  private Path directory;
+
+  /**
+   * Creates the directory to write to.
+   *
+   * @throws Exception If creating fails.
+   */
+  @Override
+  protected void setUp() throws Exception {
+    directory = Files.createTempDirectory("starfaces-sink");
+  }
+
+  /**
+   * Deletes the directory written to.
+   *
+   * @throws Exception If deleting fails.
+   */
+  @Override
+  protected void tearDown() throws Exception {
+    ComponentLibraryGenerator.delete(directory);
+  }
+
+  /**
+   * Test of commit method, of class OutputSink.
+   *
+   * @throws Exception If writing fails.
+   */
+  @Test
+  public void testCommit() throws Exception {
+    Path destination = directory.resolve("sub").resolve("out.xml");
+    Assert.assertEquals(OutputStatus.CREATED, write(destination, "<a/>"));
+    Assert.assertEquals("<a/>", new String(Files.readAllBytes(destination), StandardCharsets.UTF_8));
+
+    FileTime modified = FileTime.fromMillis(1_000_000_000L);
+    Files.setLastModifiedTime(destination, modified);
+    Assert.assertEquals(OutputStatus.UNCHANGED, write(destination, "<a/>"));
+    Assert.assertEquals(modified, Files.getLastModifiedTime(destination));
+
+    Assert.assertEquals(OutputStatus.UPDATED, write(destination, "<b/>"));
+    Assert.assertEquals("<b/>", new String(Files.readAllBytes(destination), StandardCharsets.UTF_8));
+    Assert.assertEquals(OutputStatus.UPDATED, write(destination, "<b></b>"));
+    try (Stream<Path> files = Files.list(destination.getParent())) {
+      Assert.assertEquals(1, files.count());
+    }
+  }
+
+  /**
+   * Writes content using a new sink and commits it.
+   *
+   * @param destination Destination file.
+   * @param content     Content to write.
+   *
+   * @return Whether the destination was created, updated or unchanged.
+   *
+   * @throws IOException If any exceptions happen writing.
+   */
+  private static OutputStatus write(Path destination, String content) throws IOException {
+    OutputSink sink = new OutputSink(destination);
+    Writer writer = sink.newWriter();
+    writer.write(content);
+    writer.flush();
+    Assert.assertEquals(content.length(), sink.size());
+    return sink.commit();
+  }
+
+}
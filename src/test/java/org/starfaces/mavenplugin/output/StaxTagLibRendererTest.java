@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.output;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SortedMap;
+import javax.xml.parsers.DocumentBuilderFactory;
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.junit.Test;
+import org.starfaces.mavenplugin.core.FacesLibGenerator;
+import org.starfaces.mavenplugin.fixture.ComponentLibraryGenerator;
+import org.starfaces.mavenplugin.model.FacesLib;
+import org.starfaces.mavenplugin.report.BuildReport;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class StaxTagLibRendererTest extends TestCase {
+
+  /**
+   * Directory the component library is generated in.
+   */
+  private Path directory;
+
+  /**
+   * Generator for the generated component library.
+   */
+  private FacesLibGenerator generator;
+
+  /**
+   * Model of the generated component library.
+   */
+  private FacesLib lib;
+
+  /**
+   * Generates a component library with three components and builds its model.
+   *
+   * @throws Exception If generating fails.
+   */
+  @Override
+  protected void setUp() throws Exception {
+    directory = Files.createTempDirectory("starfaces-stax");
+    Path classes = new ComponentLibraryGenerator(3, 3, 1).generate(directory);
+    generator = new FacesLibGenerator(classes, ComponentLibraryGenerator.classPathRoots(classes),
+                                      ComponentLibraryGenerator.pluginConfig(), new BuildReport("test"));
+    lib = generator.build();
+  }
+
+  /**
+   * Deletes the generated component library.
+   *
+   * @throws Exception If deleting fails.
+   */
+  @Override
+  protected void tearDown() throws Exception {
+    ComponentLibraryGenerator.delete(directory);
+  }
+
+  /**
+   * Test of render method, of class StaxTagLibRenderer, comparing the output with {@code taglib.xml.ftl}.
+   *
+   * @throws Exception If rendering or parsing fails.
+   */
+  @Test
+  public void testRender() throws Exception {
+    String stax = canonical(render(new StaxTagLibRenderer()));
+    Assert.assertTrue(stax.contains("Attribute 0 of Component0"));
+    Assert.assertEquals(canonical(render(freeMarker("taglib.xml.ftl"))), stax);
+  }
+
+  /**
+   * Test of render method, of class StaxTagLibRenderer, comparing the minified output with {@code taglib.min.xml.ftl}.
+   *
+   * @throws Exception If rendering or parsing fails.
+   */
+  @Test
+  public void testRenderMinified() throws Exception {
+    byte[] minified = render(new StaxTagLibRenderer(true));
+    String xml = new String(minified, StandardCharsets.UTF_8);
+    Assert.assertFalse(xml.contains("description"));
+    Assert.assertFalse(xml.contains(">\n") || xml.contains("> "));
+    Assert.assertTrue(minified.length < render(new StaxTagLibRenderer()).length);
+    Assert.assertEquals(canonical(render(freeMarker("taglib.min.xml.ftl"))), canonical(minified));
+  }
+
+  /**
+   * Test of shard method, of class FacesLib, rendering every shard.
+   *
+   * @throws Exception If rendering or parsing fails.
+   */
+  @Test
+  public void testRenderShards() throws Exception {
+    SortedMap<String, FacesLib> shards = lib.shard(c -> c.getClassName().endsWith("1") ? "odd" : "even");
+    Assert.assertEquals(Arrays.asList("even", "odd"), new ArrayList<>(shards.keySet()));
+    Assert.assertEquals(2, shards.get("even").getComponents().size());
+    Assert.assertEquals(1, shards.get("odd").getComponents().size());
+    Assert.assertSame(lib.getComponents().get(1), shards.get("odd").getComponents().get(0));
+
+    String odd = new String(render(new StaxTagLibRenderer(), shards.get("odd")), StandardCharsets.UTF_8);
+    Assert.assertTrue(odd.contains("generated.Component1<"));
+    Assert.assertFalse(odd.contains("generated.Component0<"));
+    String even = canonical(render(new StaxTagLibRenderer(true), shards.get("even")));
+    Assert.assertEquals(canonical(render(freeMarker("taglib.min.xml.ftl"), shards.get("even"))), even);
+    Assert.assertTrue(even.contains("generated.Component2"));
+    Assert.assertFalse(even.contains("generated.Component1"));
+  }
+
+  /**
+   * Renders the model.
+   *
+   * @param renderer Renderer to use.
+   *
+   * @return Rendered output.
+   *
+   * @throws IOException If any exceptions happen rendering.
+   */
+  private byte[] render(Renderer renderer) throws IOException {
+    return render(renderer, lib);
+  }
+
+  /**
+   * Renders a model.
+   *
+   * @param renderer Renderer to use.
+   * @param facesLib Model to render.
+   *
+   * @return Rendered output.
+   *
+   * @throws IOException If any exceptions happen rendering.
+   */
+  private static byte[] render(Renderer renderer, FacesLib facesLib) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    renderer.render(facesLib, out);
+    return out.toByteArray();
+  }
+
+  /**
+   * Returns renderer processing a template of the plugin.
+   *
+   * @param template Name of the template.
+   *
+   * @return Renderer processing the template.
+   */
+  private FreeMarkerRenderer freeMarker(String template) {
+    return new FreeMarkerRenderer(generator.getFreeMarkerConfiguration(), template);
+  }
+
+  /**
+   * Returns a canonical form of an XML document: an element per line with its namespace, name, attributes and
+   * trimmed text, indented by depth. Whitespace between elements, comments and the way text is escaped are left out.
+   *
+   * @param xml XML document.
+   *
+   * @return Canonical form of the document.
+   *
+   * @throws Exception If parsing fails.
+   */
+  private static String canonical(byte[] xml) throws Exception {
+    DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+    factory.setNamespaceAware(true);
+    factory.setCoalescing(true);
+    factory.setIgnoringComments(true);
+    StringBuilder builder = new StringBuilder();
+    append(builder, factory.newDocumentBuilder().parse(new ByteArrayInputStream(xml)).getDocumentElement(), 0);
+    return builder.toString();
+  }
+
+  /**
+   * Appends the canonical form of an element and its child elements.
+   *
+   * @param builder Builder to append to.
+   * @param element Element to append.
+   * @param depth   Depth of the element.
+   */
+  private static void append(StringBuilder builder, Element element, int depth) {
+    for (int i = 0; i < depth; i++) {
+      builder.append(' ');
+    }
+    builder.append('{').append(element.getNamespaceURI()).append('}').append(element.getLocalName());
+    for (int i = 0; i < element.getAttributes().getLength(); i++) {
+      Node attribute = element.getAttributes().item(i);
+      if (!"http://www.w3.org/2000/xmlns/".equals(attribute.getNamespaceURI())) {
+        builder.append(' ').append(attribute.getNodeName()).append("=\"").append(attribute.getNodeValue()).append('"');
+      }
+    }
+    StringBuilder text = new StringBuilder();
+    for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+      if (child.getNodeType() == Node.TEXT_NODE || child.getNodeType() == Node.CDATA_SECTION_NODE) {
+        text.append(child.getNodeValue());
+      }
+    }
+    builder.append(' ').append(text.toString().trim()).append('\n');
+    for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+      if (child.getNodeType() == Node.ELEMENT_NODE) {
+        append(builder, (Element) child, depth + 1);
+      }
+    }
+  }
+
+}
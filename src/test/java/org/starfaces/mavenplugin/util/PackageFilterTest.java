@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) Jasper de Vries.
+ */
+package org.starfaces.mavenplugin.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Jasper de Vries &lt;jepsar@gmail.com&gt;
+ */
+public class PackageFilterTest extends TestCase {
+
+  /**
+   * Test of includes and descends methods, of class PackageFilter.
+   */
+  @Test
+  public void testIncludesAndDescends() {
+    PackageFilter filter = new PackageFilter(Arrays.asList("com.*.ui"), Collections.singletonList("com.example.ui.jpa"));
+    Assert.assertTrue(filter.includes("com.example.ui"));
+    Assert.assertTrue(filter.includes("com.example.ui.input"));
+    Assert.assertFalse(filter.includes("com.example.ui.jpa"));
+    Assert.assertFalse(filter.includes("com.example"));
+    Assert.assertFalse(filter.includes(""));
+    Assert.assertTrue(filter.descends("com"));
+    Assert.assertTrue(filter.descends("com.example"));
+    Assert.assertFalse(filter.descends("com.example.model"));
+    Assert.assertFalse(filter.descends("com.example.ui.jpa"));
+    Assert.assertFalse(filter.descends("org"));
+  }
+
+}
@@ -4,9 +4,16 @@
 package org.starfaces.mavenplugin.util;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 import junit.framework.TestCase;
 import org.junit.Assert;
 import org.junit.Test;
+import org.starfaces.mavenplugin.fixture.ComponentLibraryGenerator;
 
 /**
  * @author Jasper de Vries &lt;jepsar@gmail.com&lt;
@@ -22,5 +29,47 @@ public class UtilsTest extends TestCase {
     String classPath = new File("/test/some/Random.class").toString();
     Assert.assertEquals("some.Random", Utils.className(basePath, classPath));
   }
-  
+
+  /**
+   * Test of classPaths method, of class Utils, limited by depth and package filter.
+   *
+   * @throws Exception If writing or listing fails.
+   */
+  @Test
+  public void testClassPaths() throws Exception {
+    Path directory = Files.createTempDirectory("starfaces-utils");
+    try {
+      for (String file : Arrays.asList("Root.class", "a/A.class", "a/b/B.class", "a/b/d/D.class", "c/C.class",
+                                       "c/readme.txt")) {
+        Files.createDirectories(directory.resolve(file).getParent());
+        Files.write(directory.resolve(file), new byte[0]);
+      }
+      Assert.assertEquals(Arrays.asList("Root", "a.A", "a.b.B", "a.b.d.D", "c.C"),
+                          classNames(directory, 100, PackageFilter.ALL));
+      Assert.assertEquals(Arrays.asList("Root", "a.A", "c.C"), classNames(directory, 2, PackageFilter.ALL));
+      PackageFilter filter = new PackageFilter(Arrays.asList("a"), Arrays.asList("a.b.d"));
+      Assert.assertEquals(Arrays.asList("a.A", "a.b.B"), classNames(directory, 100, filter));
+    }
+    finally {
+      ComponentLibraryGenerator.delete(directory);
+    }
+  }
+
+  /**
+   * Returns the class names of the class paths in a directory, in the order of the stream.
+   *
+   * @param directory Directory to list.
+   * @param maxDepth  The maximum number of directory levels to search.
+   * @param filter    Package filter.
+   *
+   * @return Class names.
+   *
+   * @throws IOException If any exceptions happen listing.
+   */
+  private static List<String> classNames(Path directory, int maxDepth, PackageFilter filter) throws IOException {
+    return Utils.inPool(2, () -> Utils.classPaths(directory, maxDepth, filter)
+            .map(p -> Utils.className(directory, p))
+            .collect(Collectors.toList()));
+  }
+
 }